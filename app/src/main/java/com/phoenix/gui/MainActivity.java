@@ -4,7 +4,6 @@ import android.content.*;
 import android.graphics.Color;
 import android.os.*;
 import android.view.View;
-import android.view.Gravity;
 import android.view.ViewGroup;
 import android.view.Window;
 import android.widget.*;
@@ -18,29 +17,28 @@ import com.phoenix.gui.ui.ArraylistModule;
 import com.phoenix.gui.ui.ArraylistView;
 import com.phoenix.gui.ui.DynamicColorExtractor;
 import com.phoenix.gui.ui.FloatBallView;
-import com.phoenix.gui.ui.ShortcutButton;
+import com.phoenix.gui.ui.ShortcutLayerView;
 import com.phoenix.gui.ui.dynamic.DynamicIslandWindow;
 import com.phoenix.gui.ui.ThemeManager;
 import com.phoenix.gui.ui.UI;
+import com.phoenix.gui.ui.perf.ActivityTracker;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 public class MainActivity extends ComponentActivity implements ModuleToggleListener, ShortcutToggleListener {
     
     private boolean wifiState = true;
     
-    private Button btnStart, btnStop, btnTestProgress, btnTestSwitch, btnHideAll, btnSave, btnToggleDebug, btnToggleArraylist;
+    private Button btnStart, btnStop, btnTestProgress, btnTestSwitch, btnHideAll, btnSave, btnToggleDebug, btnToggleArraylist, btnToggleHud;
     private Button btnAddRandom, btnRemoveRandom, btnResetArraylist;
     private EditText etUsername;
     private SeekBar seekScale;
     private ScrollView debugPanel;
     private FrameLayout shortcutsContainer;
     
-    private final Map<Module, ShortcutButton> shortcutButtons = new HashMap<>();
+    private ShortcutLayerView shortcutLayer;
     private final List<String> allTestModules = new ArrayList<>();
     private final Random random = new Random();
 
@@ -81,6 +79,7 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
         btnSave = findViewById(R.id.btn_save);
         btnToggleDebug = findViewById(R.id.btn_toggle_debug);
         btnToggleArraylist = findViewById(R.id.btn_toggle_arraylist);
+        btnToggleHud = findViewById(R.id.btn_toggle_hud);
         btnAddRandom = findViewById(R.id.btn_add_random_module);
         btnRemoveRandom = findViewById(R.id.btn_remove_random_module);
         btnResetArraylist = findViewById(R.id.btn_reset_arraylist);
@@ -121,6 +120,10 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
             btnToggleArraylist.setOnClickListener(v -> toggleArraylist());
         }
         
+        if (btnToggleHud != null) {
+            btnToggleHud.setOnClickListener(v -> toggleHudMode());
+        }
+        
         if (btnAddRandom != null) {
             btnAddRandom.setOnClickListener(v -> addRandomModule());
         }
@@ -147,6 +150,29 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
             hideAll();
             toast("hide all");
         });
+
+        // 拖动时只预览缩放，松手就撤掉预览，点保存才按新尺寸重建，不保存就不生效
+        seekScale.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                DynamicIslandWindow island = UI.getDynamicIsland();
+                if (fromUser && island != null && island.isShowing()) {
+                    island.previewScale(progress / 100f);
+                }
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+                DynamicIslandWindow island = UI.getDynamicIsland();
+                if (island != null) {
+                    island.resetPreview();
+                }
+            }
+        });
     }
 
     private void updateBtnState() {
@@ -193,16 +219,14 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
         if (!UI.isShowing()) return;
         
         try {
-            if (!shortcutButtons.isEmpty()) {
-                for (ShortcutButton button : shortcutButtons.values()) {
-                    try {
-                        button.destroy();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
+            if (shortcutLayer != null) {
+                try {
+                    shortcutLayer.destroy();
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
-                shortcutButtons.clear();
                 shortcutsContainer.removeAllViews();
+                shortcutLayer = null;
             }
             
             UI.hide();
@@ -259,6 +283,12 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
         updateBtnState();
     }
 
+    private void toggleHudMode() {
+        boolean enabled = !ConfigManager.getHudModeEnabled();
+        UI.setHudMode(enabled);
+        toast(enabled ? "HUD 模式已开启" : "HUD 模式已关闭");
+    }
+
     private void toggleDynamicIsland() {
         DynamicIslandWindow island = UI.getDynamicIsland();
         if (island == null) {
@@ -329,10 +359,9 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
             }
         }
 
-        ShortcutButton button = shortcutButtons.get(module);
-        if (button != null) {
+        if (shortcutLayer != null) {
             try {
-                button.updateStyle();
+                shortcutLayer.updateStyle(module);
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -362,38 +391,29 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
     }
 
     private void createShortcut(Module module) {
-        if (!shortcutButtons.containsKey(module)) {
-            try {
-                ShortcutButton button = new ShortcutButton(this, module);
-                FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
-                    FrameLayout.LayoutParams.WRAP_CONTENT,
-                    FrameLayout.LayoutParams.WRAP_CONTENT,
-                    Gravity.CENTER
-                );
-                button.setLayoutParams(params);
-                shortcutsContainer.addView(button);
-                button.show();
-                shortcutButtons.put(module, button);
-            } catch (Exception e) {
-                e.printStackTrace();
-                toast("创建快捷按钮失败: " + e.getMessage());
+        try {
+            if (shortcutLayer == null) {
+                // 所有快捷按钮共用一个图层
+                shortcutLayer = new ShortcutLayerView(this);
+                shortcutsContainer.addView(shortcutLayer, new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.MATCH_PARENT,
+                    FrameLayout.LayoutParams.MATCH_PARENT
+                ));
             }
+            shortcutLayer.addShortcut(module);
+        } catch (Exception e) {
+            e.printStackTrace();
+            toast("创建快捷按钮失败: " + e.getMessage());
         }
     }
 
     private void removeShortcut(Module module) {
-        ShortcutButton button = shortcutButtons.get(module);
-        if (button != null) {
+        if (shortcutLayer != null) {
             try {
-                button.hide();
-                button.postDelayed(() -> {
-                    shortcutsContainer.removeView(button);
-                    button.destroy();
-                }, 250);
+                shortcutLayer.removeShortcut(module);
             } catch (Exception e) {
                 e.printStackTrace();
             }
-            shortcutButtons.remove(module);
         }
     }
 
@@ -402,6 +422,32 @@ public class MainActivity extends ComponentActivity implements ModuleToggleListe
         android.util.Log.d("PHOENIX", s); // me。
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        ActivityTracker.setResumed(true);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // 不在前台时挂起所有常驻动画和定时器
+        ActivityTracker.setResumed(false);
+    }
+
+    @Override
+    public void onUserInteraction() {
+        super.onUserInteraction();
+        ActivityTracker.onInteraction();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // 内存紧张时释放隐藏后保留的界面缓存
+        UI.onTrimMemory(level);
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
@@ -11,6 +11,9 @@ public class ConfigManager {
     private static final String KEY_DYNAMIC_ISLAND_ENABLED = "dynamic_island_enabled";
     private static final String KEY_DYNAMIC_ISLAND_SCALE = "dynamic_island_scale";
     private static final String KEY_DYNAMIC_ISLAND_USERNAME = "dynamic_island_username";
+    private static final String KEY_DYNAMIC_ISLAND_METRIC = "dynamic_island_metric";
+    private static final String KEY_HUD_MODE_ENABLED = "hud_mode_enabled";
+    private static final String KEY_STATS_SAMPLE_INTERVAL = "stats_sample_interval_ms";
     
     // 初始化
     public static void init(Context context) {
@@ -98,6 +101,39 @@ public class ConfigManager {
             .apply();
     }
 
+    public static int getDynamicIslandMetric() {
+        if (sharedPreferences == null) return 0;
+        return sharedPreferences.getInt(KEY_DYNAMIC_ISLAND_METRIC, 0);
+    }
+
+    public static void setDynamicIslandMetric(int metric) {
+        getPrefs().edit()
+            .putInt(KEY_DYNAMIC_ISLAND_METRIC, metric)
+            .apply();
+    }
+
+    public static boolean getHudModeEnabled() {
+        if (sharedPreferences == null) return false;
+        return sharedPreferences.getBoolean(KEY_HUD_MODE_ENABLED, false);
+    }
+
+    public static void setHudModeEnabled(boolean enabled) {
+        getPrefs().edit()
+            .putBoolean(KEY_HUD_MODE_ENABLED, enabled)
+            .apply();
+    }
+
+    public static long getStatsSampleIntervalMs() {
+        if (sharedPreferences == null) return 1000L;
+        return sharedPreferences.getLong(KEY_STATS_SAMPLE_INTERVAL, 1000L);
+    }
+
+    public static void setStatsSampleIntervalMs(long intervalMs) {
+        getPrefs().edit()
+            .putLong(KEY_STATS_SAMPLE_INTERVAL, intervalMs)
+            .apply();
+    }
+
     public static void clearAll() {
         getPrefs().edit().clear().apply();
     }
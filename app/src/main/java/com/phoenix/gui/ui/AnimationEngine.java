@@ -0,0 +1,281 @@
+package com.phoenix.gui.ui;
+
+import android.animation.TimeInterpolator;
+import android.view.Choreographer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+// 所有过渡动画共用一个 Choreographer 回调驱动，动画记录放池子里复用
+// 值以基本类型回调，逐帧不装箱不分配；启动动画只能在主线程
+public class AnimationEngine {
+
+    public interface Target {
+        void onAnimationUpdate(int property, float value);
+
+        // 整数和颜色通道走这里
+        default void onAnimationUpdate(int property, int value) {
+
+        }
+
+        // 只在自然结束时回调，取消不回调
+        default void onAnimationEnd(int property) {
+
+        }
+    }
+
+    // 常用弹簧参数，单位质量
+    public static final float STIFFNESS_HIGH = 10000f;
+    public static final float STIFFNESS_MEDIUM = 1500f;
+    public static final float STIFFNESS_LOW = 200f;
+    public static final float DAMPING_NO_BOUNCY = 1f;
+    public static final float DAMPING_LOW_BOUNCY = 0.75f;
+    public static final float DAMPING_MEDIUM_BOUNCY = 0.5f;
+
+    private static final int TYPE_FLOAT = 0;
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_ARGB = 2;
+
+    // 弹簧积分步长和单帧最大时间，掉帧时不至于飞出去
+    private static final float SPRING_STEP = 0.004f;
+    private static final long MAX_FRAME_MS = 32L;
+
+    private static final class Record {
+        Target target;
+        int property;
+        int type;
+
+        float from;
+        float to;
+        float value;
+        int fromColor;
+        int toColor;
+
+        long duration;
+        TimeInterpolator interpolator;
+
+        boolean spring;
+        float velocity;
+        float stiffness;
+        float dampingRatio;
+        float restThreshold;
+
+        long startTime;
+        long lastTime;
+    }
+
+    private static final ArrayList<Record> active = new ArrayList<>();
+    private static final ArrayDeque<Record> pool = new ArrayDeque<>();
+    private static boolean frameScheduled = false;
+
+    private static final Choreographer.FrameCallback frameCallback = AnimationEngine::doFrame;
+
+    public static synchronized void animateFloat(Target target, int property, float from, float to,
+                                                 long duration, TimeInterpolator interpolator) {
+        Record record = obtain(target, property, TYPE_FLOAT);
+        record.from = from;
+        record.to = to;
+        record.value = from;
+        startTimed(record, duration, interpolator);
+    }
+
+    public static synchronized void animateInt(Target target, int property, int from, int to,
+                                               long duration, TimeInterpolator interpolator) {
+        Record record = obtain(target, property, TYPE_INT);
+        record.from = from;
+        record.to = to;
+        record.value = from;
+        startTimed(record, duration, interpolator);
+    }
+
+    public static synchronized void animateArgb(Target target, int property, int from, int to,
+                                                long duration, TimeInterpolator interpolator) {
+        Record record = obtain(target, property, TYPE_ARGB);
+        record.fromColor = from;
+        record.toColor = to;
+        record.from = 0f;
+        record.to = 1f;
+        record.value = 0f;
+        startTimed(record, duration, interpolator);
+    }
+
+    // 从 from 以初速度 velocity 弹到 to，打断时把当前速度传进来就能无缝衔接
+    public static synchronized void spring(Target target, int property, float from, float to,
+                                           float velocity, float stiffness, float dampingRatio) {
+        Record record = obtain(target, property, TYPE_FLOAT);
+        record.from = from;
+        record.to = to;
+        record.value = from;
+        record.spring = true;
+        record.velocity = velocity;
+        record.stiffness = stiffness;
+        record.dampingRatio = dampingRatio;
+        record.restThreshold = Math.max(Math.abs(to - from), 1f) * 0.001f;
+        schedule();
+    }
+
+    // 弹簧当前速度，没有在跑时为 0
+    public static synchronized float getVelocity(Target target, int property) {
+        Record record = find(target, property);
+        return record != null && record.spring ? record.velocity : 0f;
+    }
+
+    public static synchronized boolean isRunning(Target target, int property) {
+        return find(target, property) != null;
+    }
+
+    public static synchronized void cancel(Target target, int property) {
+        Record record = find(target, property);
+        if (record != null) {
+            record.target = null;
+        }
+    }
+
+    public static synchronized void cancelAll(Target target) {
+        for (int i = 0; i < active.size(); i++) {
+            Record record = active.get(i);
+            if (record.target == target) {
+                record.target = null;
+            }
+        }
+    }
+
+    public static synchronized int getActiveCount() {
+        int count = 0;
+        for (int i = 0; i < active.size(); i++) {
+            if (active.get(i).target != null) count++;
+        }
+        return count;
+    }
+
+    private static Record find(Target target, int property) {
+        for (int i = 0; i < active.size(); i++) {
+            Record record = active.get(i);
+            if (record.target == target && record.property == property) return record;
+        }
+        return null;
+    }
+
+    // 同一属性已有动画时直接复用那条记录，相当于取消后重新开始
+    private static Record obtain(Target target, int property, int type) {
+        Record record = find(target, property);
+        if (record == null) {
+            record = pool.poll();
+            if (record == null) record = new Record();
+            record.target = target;
+            record.property = property;
+            active.add(record);
+        }
+        record.type = type;
+        record.spring = false;
+        record.interpolator = null;
+        record.startTime = -1;
+        record.lastTime = -1;
+        return record;
+    }
+
+    private static void startTimed(Record record, long duration, TimeInterpolator interpolator) {
+        record.duration = Math.max(0L, duration);
+        record.interpolator = interpolator;
+        schedule();
+    }
+
+    private static void schedule() {
+        if (!frameScheduled) {
+            frameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    private static synchronized void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        long now = frameTimeNanos / 1_000_000L;
+
+        // 回调里可能新增或取消动画，按下标遍历，新加的这一帧也会处理
+        for (int i = 0; i < active.size(); i++) {
+            Record record = active.get(i);
+            Target target = record.target;
+            if (target == null) continue;
+
+            if (record.startTime < 0) {
+                record.startTime = now;
+                record.lastTime = now;
+            }
+
+            boolean finished = record.spring ? stepSpring(record, now) : stepTimed(record, now);
+
+            if (record.type == TYPE_FLOAT) {
+                target.onAnimationUpdate(record.property, record.value);
+            } else if (record.type == TYPE_INT) {
+                target.onAnimationUpdate(record.property, Math.round(record.value));
+            } else {
+                target.onAnimationUpdate(record.property,
+                        AnimationUtils.evaluateArgb(record.value, record.fromColor, record.toColor));
+            }
+
+            // 回调里可能已经取消，或者对同一属性重新开始了动画
+            if (finished && record.target == target && record.startTime >= 0) {
+                record.target = null;
+                target.onAnimationEnd(record.property);
+            }
+        }
+
+        // 回收已结束的记录
+        int write = 0;
+        for (int i = 0; i < active.size(); i++) {
+            Record record = active.get(i);
+            if (record.target != null) {
+                active.set(write++, record);
+            } else {
+                record.interpolator = null;
+                pool.add(record);
+            }
+        }
+        for (int i = active.size() - 1; i >= write; i--) {
+            active.remove(i);
+        }
+
+        if (!active.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private static boolean stepTimed(Record record, long now) {
+        long elapsed = now - record.startTime;
+        float fraction = record.duration == 0 ? 1f : Math.min(1f, elapsed / (float) record.duration);
+        float eased = record.interpolator != null ? record.interpolator.getInterpolation(fraction) : fraction;
+        record.value = record.from + (record.to - record.from) * eased;
+        return fraction >= 1f;
+    }
+
+    private static boolean stepSpring(Record record, long now) {
+        float dt = Math.min(now - record.lastTime, MAX_FRAME_MS) / 1000f;
+        record.lastTime = now;
+
+        float omega = (float) Math.sqrt(record.stiffness);
+        float damping = 2f * record.dampingRatio * omega;
+        float x = record.value;
+        float v = record.velocity;
+        // 半隐式欧拉，小步长积分足够稳定
+        while (dt > 0f) {
+            float h = Math.min(dt, SPRING_STEP);
+            float acceleration = -record.stiffness * (x - record.to) - damping * v;
+            v += acceleration * h;
+            x += v * h;
+            dt -= h;
+        }
+        record.value = x;
+        record.velocity = v;
+
+        if (Math.abs(x - record.to) < record.restThreshold && Math.abs(v) < record.restThreshold * 60f) {
+            record.value = record.to;
+            record.velocity = 0f;
+            return true;
+        }
+        return false;
+    }
+
+    private AnimationEngine() {
+
+    }
+}
@@ -1,34 +1,172 @@
 package com.phoenix.gui.ui;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.os.Build;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.view.animation.DecelerateInterpolator;
 
+import com.phoenix.gui.ui.perf.LayerManager;
+
 public class AnimationUtils {
 
-    public static void expand(View view, long duration) {
+    // 展开/收起时先按最终尺寸布局一次，动画过程只改裁剪区域和后面兄弟视图的位移
+    // 宿主负责把还没露出来的高度从自己的绘制区域里扣掉
+    public interface RevealHost {
+        void onRevealOffsetChanged(View child, int hiddenHeight);
+    }
 
-        view.measure(
-            ViewGroup.LayoutParams.MATCH_PARENT,
-            ViewGroup.LayoutParams.WRAP_CONTENT
-        );
-        int targetHeight = view.getMeasuredHeight();
+    private static final float FLING_DECELERATION_DP = 4000f;
+    private static final long FLING_MAX_DURATION = 450L;
+    private static final TimeInterpolator FLING_INTERPOLATOR = new DecelerateInterpolator();
+
+    public static ValueAnimator revealExpand(View view, int layoutHeight, long duration,
+                                             TimeInterpolator interpolator, Runnable onEnd) {
+        int startHeight = getVisibleHeight(view);
+        int targetHeight = layoutHeight >= 0 ? layoutHeight : measureTargetHeight(view);
 
-        view.getLayoutParams().height = 0;
+        // 唯一一次布局：直接提交最终高度
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params.height != layoutHeight) {
+            params.height = layoutHeight;
+            view.setLayoutParams(params);
+        }
         view.setVisibility(View.VISIBLE);
-        view.setAlpha(0f);
 
-        ValueAnimator animator = ValueAnimator.ofInt(0, targetHeight);
+        return startReveal(view, startHeight, targetHeight, targetHeight, duration, interpolator, () -> {
+            view.setClipBounds(null);
+            applyRevealOffset(view, 0);
+            if (onEnd != null) onEnd.run();
+        });
+    }
+
+    public static ValueAnimator revealCollapse(View view, long duration,
+                                               TimeInterpolator interpolator, Runnable onEnd) {
+        int startHeight = getVisibleHeight(view);
+
+        // 收起过程中不重新布局，当前高度就是完整高度
+        return startReveal(view, startHeight, 0, view.getHeight(), duration, interpolator, () -> {
+            // 收起结束时才提交布局
+            view.setVisibility(View.GONE);
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            params.height = 0;
+            view.setLayoutParams(params);
+            view.setClipBounds(null);
+            applyRevealOffset(view, 0);
+            if (onEnd != null) onEnd.run();
+        });
+    }
+
+    // 动画被打断后直接复位
+    public static void resetReveal(View view) {
+        view.setClipBounds(null);
+        applyRevealOffset(view, 0);
+    }
+
+    // fullHeight 是布局后的完整高度，不能在动画里读 getHeight，展开的第一帧布局还没跑完，读到的是旧值
+    private static ValueAnimator startReveal(View view, int from, int to, int fullHeight, long duration,
+                                             TimeInterpolator interpolator, Runnable onEnd) {
+        final Rect clip = new Rect();
+        final boolean[] canceled = {false};
+
+        // 动画第一次回调要等下一帧，先把起始状态设好，布局完成后的那一帧不会按完整尺寸画出来
+        clip.set(0, 0, Short.MAX_VALUE, from);
+        view.setClipBounds(clip);
+        applyRevealOffset(view, Math.max(0, fullHeight - from));
+
+        ValueAnimator animator = ValueAnimator.ofInt(from, to);
         animator.setDuration(duration);
-        animator.setInterpolator(new DecelerateInterpolator());
+        if (interpolator != null) {
+            animator.setInterpolator(interpolator);
+        }
         animator.addUpdateListener(animation -> {
-            int value = (int) animation.getAnimatedValue();
-            ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
-            layoutParams.height = value;
-            view.setLayoutParams(layoutParams);
+            int visible = (int) animation.getAnimatedValue();
+            clip.set(0, 0, Short.MAX_VALUE, visible);
+            view.setClipBounds(clip);
+            applyRevealOffset(view, Math.max(0, fullHeight - visible));
         });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                canceled[0] = true;
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (!canceled[0]) onEnd.run();
+            }
+        });
+        // 只在展开收起期间持有硬件层
+        LayerManager.trackAnimator(animator, view);
         animator.start();
+        return animator;
+    }
+
+    private static int getVisibleHeight(View view) {
+        if (view.getVisibility() != View.VISIBLE) return 0;
+        Rect clip = view.getClipBounds();
+        return clip != null ? clip.bottom : view.getHeight();
+    }
+
+    private static int measureTargetHeight(View view) {
+        View parent = (View) view.getParent();
+        int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params instanceof ViewGroup.MarginLayoutParams) {
+            ViewGroup.MarginLayoutParams margins = (ViewGroup.MarginLayoutParams) params;
+            width -= margins.leftMargin + margins.rightMargin;
+        }
+        view.measure(
+            View.MeasureSpec.makeMeasureSpec(Math.max(0, width), View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED)
+        );
+        return view.getMeasuredHeight();
+    }
+
+    // 向上找宿主，沿途把后面的兄弟视图往上平移；找不到宿主时只处理直接父布局
+    private static void applyRevealOffset(View view, int hiddenHeight) {
+        RevealHost host = null;
+        ViewParent parent = view.getParent();
+        while (parent instanceof View) {
+            if (parent instanceof RevealHost) {
+                host = (RevealHost) parent;
+                break;
+            }
+            parent = parent.getParent();
+        }
+
+        View node = view;
+        while (node.getParent() instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) node.getParent();
+            if (group == host) {
+                host.onRevealOffsetChanged(node, hiddenHeight);
+                return;
+            }
+
+            boolean following = false;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (following) {
+                    child.setTranslationY(-hiddenHeight);
+                } else if (child == node) {
+                    following = true;
+                }
+            }
+
+            if (host == null) return;
+            node = group;
+        }
+    }
+
+    public static void expand(View view, long duration) {
+        view.setAlpha(0f);
+        revealExpand(view, ViewGroup.LayoutParams.WRAP_CONTENT, duration, new DecelerateInterpolator(), null);
 
         view.animate()
             .alpha(1f)
@@ -42,27 +180,12 @@ public class AnimationUtils {
     }
 
     public static void collapse(View view, long duration) {
-        int initialHeight = view.getHeight();
-
-        ValueAnimator animator = ValueAnimator.ofInt(initialHeight, 0);
-        animator.setDuration(duration);
-        animator.setInterpolator(new DecelerateInterpolator());
-        animator.addUpdateListener(animation -> {
-            int value = (int) animation.getAnimatedValue();
-            ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
-            layoutParams.height = value;
-            view.setLayoutParams(layoutParams);
-        });
-        animator.start();
+        revealCollapse(view, duration, new DecelerateInterpolator(), null);
 
         view.animate()
             .alpha(0f)
             .setDuration(duration)
             .setInterpolator(new DecelerateInterpolator())
-            .withEndAction(() -> {
-                view.setVisibility(View.GONE);
-                view.getLayoutParams().height = 0;
-            })
             .start();
     }
 
@@ -70,6 +193,39 @@ public class AnimationUtils {
         collapse(view, 300);
     }
 
+    // 与 ArgbEvaluator 相同的插值，避免每帧装箱
+    public static int evaluateArgb(float fraction, int startValue, int endValue) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            int a = (int) (Color.alpha(startValue) + (Color.alpha(endValue) - Color.alpha(startValue)) * fraction);
+            int r = (int) (Color.red(startValue) + (Color.red(endValue) - Color.red(startValue)) * fraction);
+            int g = (int) (Color.green(startValue) + (Color.green(endValue) - Color.green(startValue)) * fraction);
+            int b = (int) (Color.blue(startValue) + (Color.blue(endValue) - Color.blue(startValue)) * fraction);
+            return Color.argb(a, r, g, b);
+        }
+
+        float startA = Color.alpha(startValue) / 255f;
+        float startR = (float) Math.pow(Color.red(startValue) / 255f, 2.2);
+        float startG = (float) Math.pow(Color.green(startValue) / 255f, 2.2);
+        float startB = (float) Math.pow(Color.blue(startValue) / 255f, 2.2);
+
+        float endA = Color.alpha(endValue) / 255f;
+        float endR = (float) Math.pow(Color.red(endValue) / 255f, 2.2);
+        float endG = (float) Math.pow(Color.green(endValue) / 255f, 2.2);
+        float endB = (float) Math.pow(Color.blue(endValue) / 255f, 2.2);
+
+        float a = startA + fraction * (endA - startA);
+        float r = startR + fraction * (endR - startR);
+        float g = startG + fraction * (endG - startG);
+        float b = startB + fraction * (endB - startB);
+
+        a = a * 255f;
+        r = (float) Math.pow(r, 1.0 / 2.2) * 255f;
+        g = (float) Math.pow(g, 1.0 / 2.2) * 255f;
+        b = (float) Math.pow(b, 1.0 / 2.2) * 255f;
+
+        return Math.round(a) << 24 | Math.round(r) << 16 | Math.round(g) << 8 | Math.round(b);
+    }
+
     public static void fadeIn(View view, long duration) {
         view.setAlpha(0f);
         view.setVisibility(View.VISIBLE);
@@ -97,6 +253,43 @@ public class AnimationUtils {
         fadeOut(view, 300);
     }
 
+    // 按松手速度惯性滑动，终点限制在父容器内，越界时贴边停下
+    public static void flingTranslation(View view, float velocityX, float velocityY) {
+        if (!(view.getParent() instanceof View)) return;
+        View parent = (View) view.getParent();
+
+        float deceleration = FLING_DECELERATION_DP * view.getResources().getDisplayMetrics().density;
+        float targetX = view.getTranslationX() + DragTracker.projectDistance(velocityX, deceleration);
+        float targetY = view.getTranslationY() + DragTracker.projectDistance(velocityY, deceleration);
+
+        // 缩放时按视觉尺寸计算边界
+        float halfExtraW = view.getWidth() * (1f - view.getScaleX()) / 2f;
+        float halfExtraH = view.getHeight() * (1f - view.getScaleY()) / 2f;
+        float minX = -view.getLeft() - halfExtraW;
+        float maxX = parent.getWidth() - view.getRight() + halfExtraW;
+        float minY = -view.getTop() - halfExtraH;
+        float maxY = parent.getHeight() - view.getBottom() + halfExtraH;
+        if (maxX >= minX) targetX = Math.max(minX, Math.min(maxX, targetX));
+        if (maxY >= minY) targetY = Math.max(minY, Math.min(maxY, targetY));
+
+        long duration = Math.min(FLING_MAX_DURATION, Math.max(
+            DragTracker.projectDuration(velocityX, deceleration),
+            DragTracker.projectDuration(velocityY, deceleration)));
+        if (duration <= 0) {
+            view.setTranslationX(targetX);
+            view.setTranslationY(targetY);
+            return;
+        }
+
+        // 二次减速曲线正好对应匀减速运动
+        view.animate()
+            .translationX(targetX)
+            .translationY(targetY)
+            .setDuration(duration)
+            .setInterpolator(FLING_INTERPOLATOR)
+            .start();
+    }
+
     private AnimationUtils() {
 
     }
@@ -1,18 +1,24 @@
 package com.phoenix.gui.ui;
 
-import android.animation.ValueAnimator;
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.graphics.*;
 import android.graphics.drawable.Drawable;
 import android.text.TextPaint;
 import android.util.AttributeSet;
 import android.view.Gravity;
+import android.view.animation.DecelerateInterpolator;
 import android.view.animation.LinearInterpolator;
 import android.widget.FrameLayout;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import com.phoenix.gui.ui.perf.LayerManager;
+import com.phoenix.gui.ui.perf.QualityGovernor;
+import com.phoenix.gui.ui.perf.TextMetricsCache;
 
-public class ArraylistItemView extends FrameLayout implements ThemeManager.OnThemeColorChangeListener {
+public class ArraylistItemView extends FrameLayout
+        implements ThemeManager.OnThemeColorChangeListener, AnimationEngine.Target,
+        QualityGovernor.OnQualityChangeListener {
 
     public enum PositionType {
         SINGLE, FIRST, MIDDLE, LAST
@@ -28,6 +34,13 @@ public class ArraylistItemView extends FrameLayout implements ThemeManager.OnThe
 
     private Paint shadowPaint;
     private Path shadowPath;
+    private BlurMaskFilter shadowBlurFilter;
+
+    // 进出场动画
+    private static final int PROP_ALPHA = 0;
+    private static final int PROP_TRANSLATION = 1;
+    private static final TimeInterpolator ENTER_EXIT_INTERPOLATOR = new DecelerateInterpolator();
+    private Runnable exitAction;
 
     public ArraylistItemView(Context context) {
         super(context);
@@ -44,7 +57,6 @@ public class ArraylistItemView extends FrameLayout implements ThemeManager.OnThe
 
     private void init() {
         setWillNotDraw(false);
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
 
         setClipChildren(false);
         setClipToPadding(false);
@@ -79,7 +91,8 @@ public class ArraylistItemView extends FrameLayout implements ThemeManager.OnThe
 
         shadowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         shadowPaint.setColor(0xFF000000);
-        shadowPaint.setMaskFilter(new BlurMaskFilter(dpToPx(6), BlurMaskFilter.Blur.NORMAL));
+        shadowBlurFilter = new BlurMaskFilter(dpToPx(6), BlurMaskFilter.Blur.NORMAL);
+        shadowPaint.setMaskFilter(shadowBlurFilter);
 
         ThemeManager.addListener(this);
     }
@@ -113,8 +126,79 @@ public class ArraylistItemView extends FrameLayout implements ThemeManager.OnThe
         invalidate();
     }
 
+    @Override
+    public void onQualityChanged(int level) {
+        applyQualityLevel();
+    }
+
+    // 降级或层预算不够时，模糊阴影换成半透明平面阴影，同时去掉软件层
+    private void applyQualityLevel() {
+        boolean blur = QualityGovernor.isBlurEnabled() && LayerManager.requestSoftwareLayer(this);
+        if (!blur) {
+            LayerManager.release(this);
+        }
+        shadowPaint.setMaskFilter(blur ? shadowBlurFilter : null);
+        shadowPaint.setColor(blur ? 0xFF000000 : 0x40000000);
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // 尺寸变了重新按实际大小登记软件层
+        if (isAttachedToWindow()) {
+            applyQualityLevel();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        QualityGovernor.addListener(this);
+        applyQualityLevel();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        QualityGovernor.removeListener(this);
+        LayerManager.release(this);
+    }
+
     public void cleanup() {
         ThemeManager.removeListener(this);
+        AnimationEngine.cancelAll(this);
+        exitAction = null;
+    }
+
+    public void animateIn(float offsetX) {
+        exitAction = null;
+        AnimationEngine.animateFloat(this, PROP_ALPHA, 0f, 1f, 300, ENTER_EXIT_INTERPOLATOR);
+        AnimationEngine.animateFloat(this, PROP_TRANSLATION, offsetX, 0f, 300, ENTER_EXIT_INTERPOLATOR);
+    }
+
+    public void animateOut(float offsetX, Runnable onComplete) {
+        exitAction = onComplete;
+        AnimationEngine.animateFloat(this, PROP_ALPHA, getAlpha(), 0f, 250, ENTER_EXIT_INTERPOLATOR);
+        AnimationEngine.animateFloat(this, PROP_TRANSLATION, getTranslationX(), offsetX, 250, ENTER_EXIT_INTERPOLATOR);
+    }
+
+    @Override
+    public void onAnimationUpdate(int property, float value) {
+        if (property == PROP_ALPHA) {
+            setAlpha(value);
+        } else {
+            setTranslationX(value);
+        }
+    }
+
+    @Override
+    public void onAnimationEnd(int property) {
+        if (property == PROP_TRANSLATION && exitAction != null) {
+            Runnable action = exitAction;
+            exitAction = null;
+            action.run();
+        }
     }
     
 
@@ -123,7 +207,7 @@ public class ArraylistItemView extends FrameLayout implements ThemeManager.OnThe
     private void drawSelectiveShadow(Canvas canvas, RectF bounds) { shadowPath.reset(); float spread = dpToPx(0.5f); switch (positionType) { case SINGLE: shadowPath.addRoundRect(bounds, cornerRadius, cornerRadius, Path.Direction.CW); break; case FIRST: shadowPath.moveTo(bounds.left + cornerRadius, bounds.top); shadowPath.lineTo(bounds.right - cornerRadius, bounds.top); shadowPath.quadTo(bounds.right, bounds.top, bounds.right, bounds.top + cornerRadius); shadowPath.lineTo(bounds.right, bounds.bottom + spread); shadowPath.lineTo(bounds.left, bounds.bottom + spread); shadowPath.lineTo(bounds.left, bounds.top + cornerRadius); shadowPath.quadTo(bounds.left, bounds.top, bounds.left + cornerRadius, bounds.top); break; case MIDDLE: shadowPath.moveTo(bounds.right, bounds.top - spread); shadowPath.lineTo(bounds.right, bounds.bottom + spread); shadowPath.lineTo(bounds.left, bounds.bottom + spread); shadowPath.lineTo(bounds.left, bounds.top - spread); break; case LAST: shadowPath.moveTo(bounds.left, bounds.top - spread); shadowPath.lineTo(bounds.right, bounds.top - spread); shadowPath.lineTo(bounds.right, bounds.bottom - cornerRadius); shadowPath.quadTo(bounds.right, bounds.bottom, bounds.right - cornerRadius, bounds.bottom); shadowPath.lineTo(bounds.left + cornerRadius, bounds.bottom); shadowPath.quadTo(bounds.left, bounds.bottom, bounds.left, bounds.bottom - cornerRadius); shadowPath.lineTo(bounds.left, bounds.top - spread); break; } shadowPath.close(); canvas.drawPath(shadowPath, shadowPaint); }
     private void drawDynamicBackground(Canvas canvas, RectF bounds) { clipPath.reset(); clipPath.moveTo(bounds.left + cornerRadius, bounds.top); if (positionType == PositionType.FIRST || positionType == PositionType.SINGLE) { clipPath.lineTo(bounds.right - cornerRadius, bounds.top); clipPath.quadTo(bounds.right, bounds.top, bounds.right, bounds.top + cornerRadius); } else { clipPath.lineTo(bounds.right, bounds.top); } if (positionType == PositionType.LAST || positionType == PositionType.SINGLE) { clipPath.lineTo(bounds.right, bounds.bottom - cornerRadius); clipPath.quadTo(bounds.right, bounds.bottom, bounds.right - cornerRadius, bounds.bottom); } else { clipPath.lineTo(bounds.right, bounds.bottom); } clipPath.lineTo(bounds.left + cornerRadius, bounds.bottom); clipPath.quadTo(bounds.left, bounds.bottom, bounds.left, bounds.bottom - cornerRadius); clipPath.lineTo(bounds.left, bounds.top + cornerRadius); clipPath.quadTo(bounds.left, bounds.top, bounds.left + cornerRadius, bounds.top); clipPath.close(); canvas.drawPath(clipPath, backgroundPaint); }
     public void setText(String text) { textView.setText(text); measureTextWidth(); }
-    private void measureTextWidth() { TextPaint paint = textView.getPaint(); String text = textView.getText().toString(); measuredTextWidth = paint.measureText(text) + textView.getPaddingLeft() + textView.getPaddingRight(); }
+    private void measureTextWidth() { TextPaint paint = textView.getPaint(); String text = textView.getText().toString(); measuredTextWidth = TextMetricsCache.measureText(paint, text) + textView.getPaddingLeft() + textView.getPaddingRight(); }
     public float getMeasuredTextWidth() { return measuredTextWidth; }
     public void setTextColor(int color) { customTextColor = color; textView.setTextColor(color); }
     private int dpToPx(float dp) { return (int) (dp * getContext().getResources().getDisplayMetrics().density); }
@@ -1,17 +1,13 @@
 package com.phoenix.gui.ui;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
 import android.animation.LayoutTransition;
 import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.util.AttributeSet;
 import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.DecelerateInterpolator;
 import android.widget.LinearLayout;
 import androidx.annotation.NonNull;
 
@@ -23,8 +19,14 @@ import java.util.List;
 import java.util.Map;
 
 public class ArraylistView extends LinearLayout {
+
+    public interface OnModulesChangeListener {
+        void onModulesChanged();
+    }
+
     private List<ArraylistModule> modules;
     private Map<String, ArraylistItemView> itemViews;
+    private OnModulesChangeListener modulesChangeListener;
 
     public ArraylistView(Context context) {
         super(context);
@@ -141,6 +143,7 @@ public class ArraylistView extends LinearLayout {
         rebuildViews();
         
         animateItemIn(itemView);
+        notifyModulesChanged();
     }
     
     public void removeModule(String moduleName) { 
@@ -155,16 +158,21 @@ public class ArraylistView extends LinearLayout {
                     itemView.cleanup(); 
                     sortModules(); 
                     rebuildViews();
+                    notifyModulesChanged();
                 }); 
             } 
+            notifyModulesChanged();
         } // 下面也是 gemini 写的，由于我懒得动。所以建议不要动。
     }
     private void sortModules() { Collections.sort(modules, (m1, m2) -> { ArraylistItemView v1 = itemViews.get(m1.getName()); ArraylistItemView v2 = itemViews.get(m2.getName()); if (v1 == null || v2 == null) { return Integer.compare(m2.getName().length(), m1.getName().length()); } float width1 = v1.getMeasuredTextWidth(); float width2 = v2.getMeasuredTextWidth(); int widthCompare = Float.compare(width2, width1); if (widthCompare != 0) { return widthCompare; } return m1.getName().compareTo(m2.getName()); }); }
-    private void animateItemIn(ArraylistItemView itemView) { ValueAnimator alphaAnimator = ValueAnimator.ofFloat(0f, 1f); alphaAnimator.setDuration(300); alphaAnimator.setInterpolator(new DecelerateInterpolator()); alphaAnimator.addUpdateListener(animation -> { float value = (float) animation.getAnimatedValue(); itemView.setAlpha(value); }); ValueAnimator translationAnimator = ValueAnimator.ofFloat(dpToPx(20), 0f); translationAnimator.setDuration(300); translationAnimator.setInterpolator(new DecelerateInterpolator()); translationAnimator.addUpdateListener(animation -> { float value = (float) animation.getAnimatedValue(); itemView.setTranslationX(value); }); alphaAnimator.start(); translationAnimator.start(); }
-    private void animateItemOut(ArraylistItemView itemView, Runnable onComplete) { ValueAnimator alphaAnimator = ValueAnimator.ofFloat(itemView.getAlpha(), 0f); alphaAnimator.setDuration(250); alphaAnimator.setInterpolator(new DecelerateInterpolator()); alphaAnimator.addUpdateListener(animation -> { float value = (float) animation.getAnimatedValue(); itemView.setAlpha(value); }); ValueAnimator translationAnimator = ValueAnimator.ofFloat(itemView.getTranslationX(), dpToPx(20)); translationAnimator.setDuration(250); translationAnimator.setInterpolator(new DecelerateInterpolator()); translationAnimator.addUpdateListener(animation -> { float value = (float) animation.getAnimatedValue(); itemView.setTranslationX(value); }); translationAnimator.addListener(new AnimatorListenerAdapter() { @Override public void onAnimationEnd(Animator animation) { if (onComplete != null) { onComplete.run(); } } }); alphaAnimator.start(); translationAnimator.start(); }
-    public void clearModules() { for (ArraylistItemView itemView : itemViews.values()) { itemView.cleanup(); } modules.clear(); itemViews.clear(); removeAllViews(); }
-    public void show() { setVisibility(VISIBLE); }
-    public void hide() { setVisibility(GONE); }
+    private void animateItemIn(ArraylistItemView itemView) { itemView.animateIn(dpToPx(20)); }
+    private void animateItemOut(ArraylistItemView itemView, Runnable onComplete) { itemView.animateOut(dpToPx(20), onComplete); }
+    public void clearModules() { for (ArraylistItemView itemView : itemViews.values()) { itemView.cleanup(); } modules.clear(); itemViews.clear(); removeAllViews(); notifyModulesChanged(); }
+    public void show() { setVisibility(VISIBLE); notifyModulesChanged(); }
+    public void hide() { setVisibility(GONE); notifyModulesChanged(); }
+    // HUD 模式下由它把列表变化同步到渲染线程
+    public void setOnModulesChangeListener(OnModulesChangeListener listener) { modulesChangeListener = listener; }
+    private void notifyModulesChanged() { if (modulesChangeListener != null) { modulesChangeListener.onModulesChanged(); } }
     private int dpToPx(float dp) { return (int) (dp * getContext().getResources().getDisplayMetrics().density); }
     public List<ArraylistModule> getModules() { return this.modules; }
 }
\ No newline at end of file
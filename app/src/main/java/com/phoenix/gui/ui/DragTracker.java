@@ -0,0 +1,174 @@
+package com.phoenix.gui.ui;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+// 通用拖动手势：屏幕坐标下跟手，消费历史采样算速度，并做短时预测
+public class DragTracker {
+
+    public interface Callback {
+        void onPress(boolean pressed);
+
+        void onDragStart();
+
+        // 相对按下位置的总偏移
+        void onDragMove(float offsetX, float offsetY);
+
+        // 速度单位 px/s
+        void onDragEnd(float velocityX, float velocityY);
+
+        void onClick(long pressDuration);
+    }
+
+    // 预测时长，约半帧，够抵消输入到上屏的延迟又不至于过冲
+    private static final float PREDICTION_MS = 8f;
+    private static final float MAX_PREDICTION_DP = 24f;
+
+    private final Callback callback;
+    private final int touchSlop;
+    private final float minFlingVelocity;
+    private final float maxFlingVelocity;
+    private final float maxPrediction;
+
+    private VelocityTracker velocityTracker;
+    private float downRawX;
+    private float downRawY;
+    private long downTime;
+    private boolean tracking;
+    private boolean dragging;
+
+    public DragTracker(Context context, Callback callback) {
+        this.callback = callback;
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        this.touchSlop = configuration.getScaledTouchSlop();
+        this.minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        this.maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        this.maxPrediction = MAX_PREDICTION_DP * context.getResources().getDisplayMetrics().density;
+    }
+
+    public boolean onTouchEvent(View view, MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action != MotionEvent.ACTION_DOWN && !tracking) return false;
+
+        // 换到屏幕坐标，被拖动的视图自己在动，局部坐标会互相干扰
+        float offsetX = event.getRawX() - event.getX();
+        float offsetY = event.getRawY() - event.getY();
+        event.offsetLocation(offsetX, offsetY);
+        try {
+            switch (action) {
+                case MotionEvent.ACTION_DOWN:
+                    // 不等 vsync 批量合并，MOVE 到了就分发
+                    view.requestUnbufferedDispatch(event);
+                    if (velocityTracker == null) {
+                        velocityTracker = VelocityTracker.obtain();
+                    } else {
+                        velocityTracker.clear();
+                    }
+                    velocityTracker.addMovement(event);
+                    downRawX = event.getX();
+                    downRawY = event.getY();
+                    downTime = event.getEventTime();
+                    tracking = true;
+                    dragging = false;
+                    callback.onPress(true);
+                    return true;
+
+                case MotionEvent.ACTION_MOVE:
+                    // 历史采样一起交给速度追踪
+                    velocityTracker.addMovement(event);
+                    handleMove(event);
+                    return true;
+
+                case MotionEvent.ACTION_UP:
+                    velocityTracker.addMovement(event);
+                    finish(event, true);
+                    return true;
+
+                case MotionEvent.ACTION_CANCEL:
+                    finish(event, false);
+                    return true;
+            }
+            return tracking;
+        } finally {
+            event.offsetLocation(-offsetX, -offsetY);
+        }
+    }
+
+    private void handleMove(MotionEvent event) {
+        float dx = event.getX() - downRawX;
+        float dy = event.getY() - downRawY;
+
+        if (!dragging) {
+            // 只要这一批里有任一采样越过阈值就开始拖动
+            boolean crossed = Math.abs(dx) > touchSlop || Math.abs(dy) > touchSlop;
+            for (int i = 0; !crossed && i < event.getHistorySize(); i++) {
+                crossed = Math.abs(event.getHistoricalX(i) - downRawX) > touchSlop
+                        || Math.abs(event.getHistoricalY(i) - downRawY) > touchSlop;
+            }
+            if (!crossed) return;
+            dragging = true;
+            callback.onDragStart();
+        }
+
+        velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+        float predictX = clamp(velocityTracker.getXVelocity() * PREDICTION_MS / 1000f);
+        float predictY = clamp(velocityTracker.getYVelocity() * PREDICTION_MS / 1000f);
+        callback.onDragMove(dx + predictX, dy + predictY);
+    }
+
+    private void finish(MotionEvent event, boolean up) {
+        tracking = false;
+        callback.onPress(false);
+
+        if (dragging) {
+            dragging = false;
+            // 松手时回到真实位置，不带预测量
+            callback.onDragMove(event.getX() - downRawX, event.getY() - downRawY);
+
+            float velocityX = 0f;
+            float velocityY = 0f;
+            if (up) {
+                velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                velocityX = velocityTracker.getXVelocity();
+                velocityY = velocityTracker.getYVelocity();
+                if (Math.hypot(velocityX, velocityY) < minFlingVelocity) {
+                    velocityX = 0f;
+                    velocityY = 0f;
+                }
+            }
+            callback.onDragEnd(velocityX, velocityY);
+        } else if (up) {
+            callback.onClick(event.getEventTime() - downTime);
+        }
+    }
+
+    private float clamp(float value) {
+        return Math.max(-maxPrediction, Math.min(maxPrediction, value));
+    }
+
+    public boolean isDragging() {
+        return dragging;
+    }
+
+    public void recycle() {
+        tracking = false;
+        dragging = false;
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    // 匀减速下按初速度能滑出的距离
+    public static float projectDistance(float velocity, float deceleration) {
+        return Math.signum(velocity) * velocity * velocity / (2f * deceleration);
+    }
+
+    // 匀减速滑到停止所需时间，毫秒
+    public static long projectDuration(float velocity, float deceleration) {
+        return (long) (Math.abs(velocity) / deceleration * 1000f);
+    }
+}
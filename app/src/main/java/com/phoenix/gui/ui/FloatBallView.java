@@ -3,16 +3,16 @@ package com.phoenix.gui.ui;
 import android.content.Context;
 import android.graphics.Color;
 import android.graphics.drawable.GradientDrawable;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.DisplayMetrics;
 import android.view.Gravity;
-import android.view.MotionEvent;
 import android.view.View;
 import android.view.WindowManager;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 
 import com.phoenix.gui.config.ConfigManager;
-import com.phoenix.gui.module.ModuleCategory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +26,14 @@ public class FloatBallView extends LinearLayout {
     private final LinearLayout innerBall;
 
     private final FrameLayout menusContainer;
+    private DragTracker dragTracker;
+
+    private final MessageQueue.IdleHandler prebuildOnIdle = () -> {
+        if (menuViews.isEmpty()) {
+            MenuPrebuilder.prebuild(getContext(), this::onMenusReady);
+        }
+        return false;
+    };
 
     public FloatBallView(Context context, FrameLayout menusContainer) {
         super(context);
@@ -68,66 +76,69 @@ public class FloatBallView extends LinearLayout {
 
         setupTouchListeners();
 
-        createMenus();
+        // 等主线程第一次空闲再预构建，不和悬浮窗显示抢时间；在此之前点开菜单就同步构建
+        Looper.myQueue().addIdleHandler(prebuildOnIdle);
     }
 
-    private void createMenus() {
-        menuViews.add(new MenuView(getContext(), ModuleCategory.PLAYER, MenuView.MenuPosition.POSITION_1));
-        menuViews.add(new MenuView(getContext(), ModuleCategory.WORLD, MenuView.MenuPosition.POSITION_2));
-        menuViews.add(new MenuView(getContext(), ModuleCategory.MOVEMENT, MenuView.MenuPosition.POSITION_3));
-        menuViews.add(new MenuView(getContext(), ModuleCategory.COMBAT, MenuView.MenuPosition.POSITION_4));
-        menuViews.add(new MenuView(getContext(), ModuleCategory.VISUAL, MenuView.MenuPosition.POSITION_5));
+    private void onMenusReady(List<MenuView> menus) {
+        if (menuViews.isEmpty()) {
+            menuViews.addAll(menus);
+        } else {
+            for (MenuView menu : menus) {
+                menu.destroy();
+            }
+        }
+    }
+
+    // 后台预构建还没完成时才在主线程同步创建
+    private void ensureMenus() {
+        if (!menuViews.isEmpty()) return;
+
+        menuViews.addAll(MenuPrebuilder.buildNow(getContext()));
     }
 
     private void setupTouchListeners() {
-        final float[] downPos = new float[2];
-        final boolean[] hasMoved = {false};
-        final long[] downTime = {0};
-
-        setOnTouchListener((v, event) -> {
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN:
-                    downPos[0] = event.getX();
-                    downPos[1] = event.getY();
-                    hasMoved[0] = false;
-                    downTime[0] = System.currentTimeMillis();
-
-                    animate()
-                        .scaleX(0.9f)
-                        .scaleY(0.9f)
-                        .setDuration(100)
-                        .start();
-                    return true;
-
-                case MotionEvent.ACTION_MOVE:
-                    float moveX = event.getX();
-                    float moveY = event.getY();
-                    float deltaX = moveX - downPos[0];
-                    float deltaY = moveY - downPos[1];
-
-                    if (Math.abs(deltaX) > 10 || Math.abs(deltaY) > 10) {
-                        hasMoved[0] = true;
-                        setTranslationX(getTranslationX() + deltaX);
-                        setTranslationY(getTranslationY() + deltaY);
-                    }
-                    return true;
-
-                case MotionEvent.ACTION_UP:
-                case MotionEvent.ACTION_CANCEL:
-                    animate()
-                        .scaleX(1f)
-                        .scaleY(1f)
-                        .setDuration(100)
-                        .start();
-
-                    long clickDuration = System.currentTimeMillis() - downTime[0];
-                    if (!hasMoved[0] && clickDuration < 300) {
-                        toggleMenus();
-                    }
-                    return true;
+        dragTracker = new DragTracker(getContext(), new DragTracker.Callback() {
+            private float startTranslationX;
+            private float startTranslationY;
+
+            @Override
+            public void onPress(boolean pressed) {
+                // 按下时停掉还没滑完的惯性
+                if (pressed) animate().cancel();
+                animate()
+                    .scaleX(pressed ? 0.9f : 1f)
+                    .scaleY(pressed ? 0.9f : 1f)
+                    .setDuration(100)
+                    .start();
+            }
+
+            @Override
+            public void onDragStart() {
+                startTranslationX = getTranslationX();
+                startTranslationY = getTranslationY();
+            }
+
+            @Override
+            public void onDragMove(float offsetX, float offsetY) {
+                setTranslationX(startTranslationX + offsetX);
+                setTranslationY(startTranslationY + offsetY);
+            }
+
+            @Override
+            public void onDragEnd(float velocityX, float velocityY) {
+                AnimationUtils.flingTranslation(FloatBallView.this, velocityX, velocityY);
+            }
+
+            @Override
+            public void onClick(long pressDuration) {
+                if (pressDuration < 300) {
+                    toggleMenus();
+                }
             }
-            return false;
         });
+
+        setOnTouchListener((v, event) -> dragTracker.onTouchEvent(v, event));
     }
 
     private void toggleMenus() {
@@ -143,6 +154,7 @@ public class FloatBallView extends LinearLayout {
     private void showMenus() {
         if (menusContainer == null) return;
 
+        ensureMenus();
         menusContainer.removeAllViews();
         menusContainer.setVisibility(View.VISIBLE);
 
@@ -206,6 +218,11 @@ public class FloatBallView extends LinearLayout {
     }
 
     public void destroy() {
+        Looper.myQueue().removeIdleHandler(prebuildOnIdle);
+        MenuPrebuilder.cancel();
+        if (dragTracker != null) {
+            dragTracker.recycle();
+        }
         try {
             for (MenuView menu : menuViews) {
                 if (menu.getParent() != null) {
@@ -0,0 +1,99 @@
+package com.phoenix.gui.ui;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+import com.phoenix.gui.module.ModuleCategory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 在后台线程预先构建菜单视图树，主线程只负责挂载
+public class MenuPrebuilder {
+
+    public interface OnMenusReadyListener {
+        void onMenusReady(List<MenuView> menus);
+    }
+
+    private static final ModuleCategory[] CATEGORIES = {
+            ModuleCategory.PLAYER,
+            ModuleCategory.WORLD,
+            ModuleCategory.MOVEMENT,
+            ModuleCategory.COMBAT,
+            ModuleCategory.VISUAL
+    };
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static HandlerThread workerThread;
+    private static Handler workerHandler;
+
+    // 每次取消都会递增，过期的构建结果直接丢弃
+    private static volatile int generation = 0;
+
+    public static synchronized void prebuild(Context context, OnMenusReadyListener listener) {
+        ensureWorker();
+        final int token = generation;
+
+        workerHandler.post(() -> {
+            List<MenuView> menus = new ArrayList<>();
+            try {
+                for (int i = 0; i < CATEGORIES.length; i++) {
+                    if (token != generation) break;
+                    MenuView menu = new MenuView(context, CATEGORIES[i], MenuView.MenuPosition.values()[i]);
+                    menu.prebuildItems();
+                    menus.add(menu);
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            mainHandler.post(() -> {
+                if (token != generation || menus.size() != CATEGORIES.length) {
+                    for (MenuView menu : menus) {
+                        menu.destroy();
+                    }
+                    return;
+                }
+                listener.onMenusReady(menus);
+            });
+        });
+    }
+
+    // 后台还没构建完时主线程同步构建
+    public static List<MenuView> buildNow(Context context) {
+        cancel();
+        List<MenuView> menus = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            menus.add(new MenuView(context, CATEGORIES[i], MenuView.MenuPosition.values()[i]));
+        }
+        return menus;
+    }
+
+    public static void cancel() {
+        generation++;
+    }
+
+    public static synchronized void shutdown() {
+        cancel();
+        if (workerThread != null) {
+            workerThread.quitSafely();
+            workerThread = null;
+            workerHandler = null;
+        }
+    }
+
+    private static void ensureWorker() {
+        if (workerThread == null) {
+            workerThread = new HandlerThread("PhoenixMenuPrebuild", Process.THREAD_PRIORITY_BACKGROUND);
+            workerThread.start();
+            workerHandler = new Handler(workerThread.getLooper());
+        }
+    }
+
+    private MenuPrebuilder() {
+
+    }
+}
@@ -4,32 +4,37 @@ import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.graphics.Color;
+import android.graphics.Outline;
+import android.graphics.Paint;
 import android.graphics.Typeface;
 import android.graphics.drawable.GradientDrawable;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.text.TextPaint;
 import android.util.DisplayMetrics;
 import android.view.Gravity;
 import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
 import android.view.View;
-import android.view.ViewConfiguration;
 import android.view.ViewOutlineProvider;
 import android.view.WindowManager;
 import android.view.animation.DecelerateInterpolator;
 import android.widget.LinearLayout;
-import android.widget.ScrollView;
 import android.widget.TextView;
 import android.view.ViewGroup;
 import com.phoenix.gui.module.Module;
 import com.phoenix.gui.module.ModuleCategory;
 import com.phoenix.gui.module.ModuleManager;
+import com.phoenix.gui.ui.perf.ActivityTracker;
+import com.phoenix.gui.ui.perf.LayerManager;
+import com.phoenix.gui.ui.perf.QualityGovernor;
+import com.phoenix.gui.ui.perf.TextMetricsCache;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorChangeListener {
+public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorChangeListener, AnimationUtils.RevealHost,
+        ActivityTracker.OnActiveChangeListener {
 
     private static final String PREF_NAME = "menu_view_settings";
     private static final String KEY_SCALE_FACTOR = "scale_factor";
@@ -42,20 +47,25 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
     private boolean isExpanded = false;
 
     private final LinearLayout titleBar;
-    private final ScrollView scrollView;
-    private final LinearLayout contentLayout;
+    private final ModuleListView moduleList;
 
-    private final Map<Module, ModuleItemView> moduleItems = new HashMap<>();
+    private final List<Module> modules;
+    private final TextPaint measurePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
     private ValueAnimator expandAnimator;
+    // 列表展开动画中还没露出来的高度，轮廓按这个高度裁剪
+    private int revealHiddenHeight = 0;
     private final Handler handler = new Handler(Looper.getMainLooper());
 
-    private float touchStartX = 0f;
-    private float touchStartY = 0f;
-    private boolean isDragging = false;
-    private final int touchSlop;
+    private DragTracker dragTracker;
 
     private float scaleFactor = 1.0f;
 
+    // 双指缩放过程中只改变换，松手后才按新尺寸重建
+    private final ScaleGestureDetector scaleDetector;
+    private float gestureScale = 1.0f;
+    private boolean isPinching = false;
+    private boolean scaleTakenOver = false;
+
     private final float baseScaleFactor;
 
     private static final long ANIMATION_DURATION = 250L;
@@ -68,7 +78,10 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
         public void run() {
             if (getVisibility() == View.VISIBLE && isExpanded) {
                 refreshAllModuleStates();
-                handler.postDelayed(this, 500);
+                // 界面空闲时不再轮询，恢复活跃时重新开始
+                if (ActivityTracker.isActive()) {
+                    handler.postDelayed(this, 500);
+                }
             }
         }
     };
@@ -83,7 +96,6 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
         this.category = category;
         this.position = position;
         this.preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        this.touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
 
         this.baseScaleFactor = calculateBaseScaleFactor() * 0.75f;
 
@@ -91,7 +103,7 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
 
         setOrientation(VERTICAL);
 
-        List<Module> modules = ModuleManager.getModulesByCategory(category);
+        modules = ModuleManager.getModulesByCategory(category);
 
         GradientDrawable bg = new GradientDrawable();
         bg.setColor(ThemeManager.getBgPrimary());
@@ -100,7 +112,13 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             setClipToOutline(true);
-            setOutlineProvider(ViewOutlineProvider.BACKGROUND);
+            setOutlineProvider(new ViewOutlineProvider() {
+                @Override
+                public void getOutline(View view, Outline outline) {
+                    outline.setRoundRect(0, 0, view.getWidth(), view.getHeight() - revealHiddenHeight,
+                            scaled(CORNER_RADIUS_DP));
+                }
+            });
             setElevation(scaled(12));
         } else {
             setClipChildren(true);
@@ -120,45 +138,62 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
         titleBar = createTitleBar();
         addView(titleBar);
 
-        scrollView = new ScrollView(context);
-        scrollView.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, 0));
-        scrollView.setVerticalScrollBarEnabled(false);
-        scrollView.setVisibility(View.GONE);
-        scrollView.setClipChildren(false);
-        scrollView.setClipToPadding(false);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-            scrollView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
-        }
+        // 条目由列表按需创建和回收，只有可见的行才会存在
+        moduleList = new ModuleListView(context, this, baseScaleFactor * scaleFactor);
+        moduleList.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, 0));
+        moduleList.setVisibility(View.GONE);
+        moduleList.setModules(modules);
+        addView(moduleList);
 
-        contentLayout = new LinearLayout(context);
-        contentLayout.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
-        contentLayout.setOrientation(VERTICAL);
-        contentLayout.setPadding(0, 0, 0, 0);
-        contentLayout.setClipChildren(false);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-            contentLayout.setLayerType(View.LAYER_TYPE_HARDWARE, null);
-        }
+        setupTouchListeners();
 
-        for (Module module : modules) {
-            ModuleItemView item = new ModuleItemView(context, module, this, baseScaleFactor * scaleFactor);
-            moduleItems.put(module, item);
-            contentLayout.addView(item);
-        }
+        // 构造可能在预构建线程上，检测器内部的 Handler 必须绑主线程，否则点按消息会跑到后台线程
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScaleBegin(ScaleGestureDetector detector) {
+                isPinching = true;
+                gestureScale = scaleFactor;
+                animate().cancel();
+                LayerManager.demote(MenuView.this);
+                setPivotX(0f);
+                setPivotY(0f);
+                return true;
+            }
 
-        scrollView.addView(contentLayout);
-        addView(scrollView);
+            @Override
+            public boolean onScale(ScaleGestureDetector detector) {
+                gestureScale = Math.max(0.5f, Math.min(2.0f, gestureScale * detector.getScaleFactor()));
+                float transform = gestureScale / scaleFactor;
+                setScaleX(transform);
+                setScaleY(transform);
+                return true;
+            }
 
-        setupTouchListeners();
+            @Override
+            public void onScaleEnd(ScaleGestureDetector detector) {
+                isPinching = false;
+                setScaleX(1f);
+                setScaleY(1f);
+                restorePivot();
+                setScaleFactor(gestureScale);
+            }
+        }, handler);
+    }
 
-        ThemeManager.addListener(this);
+    // 供后台预构建调用，视图此时尚未挂载，只备好第一屏的条目
+    void prebuildItems() {
+        moduleList.prefill(getMaxContentHeight());
     }
 
     private void refreshAllModuleStates() {
-        for (Map.Entry<Module, ModuleItemView> entry : moduleItems.entrySet()) {
-            Module module = entry.getKey();
-            ModuleItemView item = entry.getValue();
-            item.syncWithModuleState(module.isEnabled());
-        }
+        moduleList.syncModuleStates();
+    }
+
+    private int getMaxContentHeight() {
+        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        DisplayMetrics screenSize = new DisplayMetrics();
+        windowManager.getDefaultDisplay().getRealMetrics(screenSize);
+        return (int) (screenSize.heightPixels * 0.5);
     }
 
     private float calculateBaseScaleFactor() {
@@ -219,13 +254,8 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
         setScaleFactor(1.0f);
     }
 
+    // 只在缩放提交时调用一次，展开状态下直接调整列表高度，不再收起重开
     private void rebuildUI() {
-        boolean wasExpanded = isExpanded;
-
-        if (isExpanded) {
-            collapseContent();
-        }
-
         GradientDrawable bg = (GradientDrawable) getBackground();
         bg.setCornerRadius(scaled(CORNER_RADIUS_DP));
 
@@ -235,16 +265,48 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
 
         updateTitleBar();
 
-        for (ModuleItemView item : moduleItems.values()) {
-            item.updateScale(baseScaleFactor * scaleFactor);
-        }
+        moduleList.setScaleFactor(baseScaleFactor * scaleFactor);
 
         globalMaxWidth = 0;
         measureInitialSize();
 
-        if (wasExpanded) {
-            handler.postDelayed(this::expandContent, 100);
+        if (isExpanded && (expandAnimator == null || !expandAnimator.isRunning())) {
+            LayoutParams lp = (LayoutParams) moduleList.getLayoutParams();
+            lp.height = Math.min(moduleList.getContentHeight(), getMaxContentHeight());
+            moduleList.setLayoutParams(lp);
+        }
+    }
+
+    private void restorePivot() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            super.resetPivot();
+        } else {
+            setPivotX(getWidth() / 2f);
+            setPivotY(getHeight() / 2f);
+        }
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent event) {
+        // 第二根手指按下时接管事件，子视图会收到 CANCEL
+        if (event.getActionMasked() == MotionEvent.ACTION_POINTER_DOWN) {
+            scaleDetector.onTouchEvent(event);
+            scaleTakenOver = true;
+            return true;
         }
+        return isPinching;
+    }
+
+    // 只有缩放手势接管之后才消费事件，其余落在菜单范围内但没有子视图处理的触摸照常穿透
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        scaleDetector.onTouchEvent(event);
+        boolean handled = isPinching || scaleTakenOver;
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            scaleTakenOver = false;
+        }
+        return handled;
     }
 
     private void updateTitleBar() {
@@ -280,59 +342,51 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
         textView.setTypeface(Typeface.DEFAULT_BOLD);
         bar.addView(textView);
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-            bar.setLayerType(View.LAYER_TYPE_HARDWARE, null);
-        }
-
         return bar;
     }
 
     private void setupTouchListeners() {
-        final float[] lastRaw = new float[2];
-
-        titleBar.setOnTouchListener((v, event) -> {
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN:
-                    touchStartX = event.getX();
-                    touchStartY = event.getY();
-                    lastRaw[0] = event.getRawX();
-                    lastRaw[1] = event.getRawY();
-                    isDragging = false;
-                    return true;
-
-                case MotionEvent.ACTION_MOVE:
-                    float deltaX = Math.abs(event.getX() - touchStartX);
-                    float deltaY = Math.abs(event.getY() - touchStartY);
-
-                    if (!isDragging && (deltaX > touchSlop || deltaY > touchSlop)) {
-                        isDragging = true;
-                    }
-
-                    if (isDragging) {
-                        float nowRawX = event.getRawX();
-                        float nowRawY = event.getRawY();
-                        float moveDeltaX = nowRawX - lastRaw[0];
-                        float moveDeltaY = nowRawY - lastRaw[1];
-                        MenuView.this.setTranslationX(MenuView.this.getTranslationX() + moveDeltaX);
-                        MenuView.this.setTranslationY(MenuView.this.getTranslationY() + moveDeltaY);
-                        lastRaw[0] = nowRawX;
-                        lastRaw[1] = nowRawY;
-                    }
-                    return true;
-
-                case MotionEvent.ACTION_UP:
-                    if (!isDragging) {
-                        toggleExpand();
-                    }
-                    isDragging = false;
-                    return true;
-
-                case MotionEvent.ACTION_CANCEL:
-                    isDragging = false;
-                    return true;
+        dragTracker = new DragTracker(context, new DragTracker.Callback() {
+            private float startTranslationX;
+            private float startTranslationY;
+
+            @Override
+            public void onPress(boolean pressed) {
+
+            }
+
+            @Override
+            public void onDragStart() {
+                // 停掉上一次的惯性滑动
+                animate().cancel();
+                LayerManager.demote(MenuView.this);
+                if (getVisibility() == View.VISIBLE) {
+                    setAlpha(1f);
+                    setScaleX(1f);
+                    setScaleY(1f);
+                }
+                startTranslationX = getTranslationX();
+                startTranslationY = getTranslationY();
+            }
+
+            @Override
+            public void onDragMove(float offsetX, float offsetY) {
+                setTranslationX(startTranslationX + offsetX);
+                setTranslationY(startTranslationY + offsetY);
+            }
+
+            @Override
+            public void onDragEnd(float velocityX, float velocityY) {
+                AnimationUtils.flingTranslation(MenuView.this, velocityX, velocityY);
+            }
+
+            @Override
+            public void onClick(long pressDuration) {
+                toggleExpand();
             }
-            return false;
         });
+
+        titleBar.setOnTouchListener((v, event) -> dragTracker.onTouchEvent(v, event));
     }
 
     private void toggleExpand() {
@@ -347,66 +401,29 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
 
     private void expandContent() {
         isExpanded = true;
-        scrollView.setVisibility(View.VISIBLE);
 
-        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
-        DisplayMetrics screenSize = new DisplayMetrics();
-        windowManager.getDefaultDisplay().getRealMetrics(screenSize);
+        // 高度由缓存的行高直接算出，和模块数量无关
+        int targetHeight = Math.min(moduleList.getContentHeight(), getMaxContentHeight());
 
-        contentLayout.measure(
-            MeasureSpec.makeMeasureSpec(globalMaxWidth, MeasureSpec.AT_MOST),
-            MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
-        );
-        int maxHeight = (int) (screenSize.heightPixels * 0.5);
-        int targetHeight = Math.min(contentLayout.getMeasuredHeight(), maxHeight);
-
-        scrollView.setAlpha(0f);
-        LayoutParams lp = (LayoutParams) scrollView.getLayoutParams();
-        lp.height = 0;
-        scrollView.setLayoutParams(lp);
-
-        expandAnimator = ValueAnimator.ofInt(0, targetHeight);
-        expandAnimator.setDuration(ANIMATION_DURATION);
-        expandAnimator.setInterpolator(new DecelerateInterpolator());
-        expandAnimator.addUpdateListener(animator -> {
-            int value = (int) animator.getAnimatedValue();
-            LayoutParams params = (LayoutParams) scrollView.getLayoutParams();
-            params.height = value;
-            scrollView.setLayoutParams(params);
-            scrollView.setAlpha((float) value / targetHeight);
-        });
-        expandAnimator.start();
+        // 只在开始时布局一次，动画过程只改裁剪和轮廓
+        moduleList.setAlpha(0f);
+        expandAnimator = AnimationUtils.revealExpand(moduleList, targetHeight, QualityGovernor.scaleDuration(ANIMATION_DURATION),
+                new DecelerateInterpolator(), null);
+        expandAnimator.addUpdateListener(animator -> moduleList.setAlpha(animator.getAnimatedFraction()));
 
         handler.post(statusChecker);
     }
 
     private void collapseContent() {
         isExpanded = false;
-        int startHeight = scrollView.getHeight();
-
         closeAllSubMenus();
 
         handler.removeCallbacks(statusChecker);
 
-        expandAnimator = ValueAnimator.ofInt(startHeight, 0);
-        expandAnimator.setDuration(ANIMATION_DURATION);
-        expandAnimator.setInterpolator(new DecelerateInterpolator());
-        expandAnimator.addUpdateListener(animator -> {
-            int value = (int) animator.getAnimatedValue();
-            LayoutParams params = (LayoutParams) scrollView.getLayoutParams();
-            params.height = value;
-            scrollView.setLayoutParams(params);
-            if (startHeight > 0) {
-                scrollView.setAlpha((float) value / startHeight);
-            }
-        });
-        expandAnimator.addListener(new android.animation.AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(android.animation.Animator animation) {
-                scrollView.setVisibility(View.GONE);
-            }
-        });
-        expandAnimator.start();
+        // 布局在动画结束时才提交
+        expandAnimator = AnimationUtils.revealCollapse(moduleList, QualityGovernor.scaleDuration(ANIMATION_DURATION),
+                new DecelerateInterpolator(), null);
+        expandAnimator.addUpdateListener(animator -> moduleList.setAlpha(1f - animator.getAnimatedFraction()));
     }
 
     public void show() {
@@ -416,12 +433,15 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
         setAlpha(0f);
         setScaleX(0.8f);
         setScaleY(0.8f);
+        // 淡入期间用硬件层合成，结束后释放
+        LayerManager.promote(this);
         animate()
             .alpha(1f)
             .scaleX(1f)
             .scaleY(1f)
-            .setDuration(ANIMATION_DURATION)
+            .setDuration(QualityGovernor.scaleDuration(ANIMATION_DURATION))
             .setInterpolator(new DecelerateInterpolator())
+            .withEndAction(() -> LayerManager.demote(this))
             .start();
 
         if (isExpanded) {
@@ -432,18 +452,16 @@ public class MenuView extends LinearLayout implements ThemeManager.OnThemeColorC
     private void measureInitialSize() {
         int maxWidth = globalMaxWidth;
 
-        titleBar.measure(
-            MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
-            MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
-        );
-        maxWidth = Math.max(maxWidth, titleBar.getMeasuredWidth());
-
-        for (ModuleItemView item : moduleItems.values()) {
-            item.measure(
-                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
-                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
-            );
-            maxWidth = Math.max(maxWidth, item.getMeasuredWidth());
+        // 直接按文字宽度计算，不需要先把条目视图建出来
+        measurePaint.setTypeface(Typeface.DEFAULT_BOLD);
+        measurePaint.setTextSize(11.5f * baseScaleFactor * scaleFactor * getResources().getDisplayMetrics().scaledDensity);
+        int titleWidth = scaled(14) * 2
+                + (int) Math.ceil(TextMetricsCache.measureText(measurePaint, category.getDisplayName()));
+        maxWidth = Math.max(maxWidth, titleWidth);
+
+        for (Module module : modules) {
+            maxWidth = Math.max(maxWidth,
+                    ModuleItemView.measureWidth(context, module, baseScaleFactor * scaleFactor, measurePaint));
         }
 
         WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
@@ -472,24 +490,24 @@ maxWidth = Math.max(minWidth, Math.min(maxWidth, maxAllowedWidth)); // 你说屎
         if (expandAnimator != null) expandAnimator.cancel();
         animate().cancel();
 
-        for (ModuleItemView item : moduleItems.values()) {
-            item.cancelAllAnimations();
-        }
+        moduleList.cancelAllAnimations();
 
+        LayerManager.promote(this);
         animate()
             .alpha(0f)
             .scaleX(0.8f)
             .scaleY(0.8f)
-            .setDuration(ANIMATION_DURATION)
+            .setDuration(QualityGovernor.scaleDuration(ANIMATION_DURATION))
             .setInterpolator(new DecelerateInterpolator())
-            .withEndAction(() -> setVisibility(View.GONE))
+            .withEndAction(() -> {
+                setVisibility(View.GONE);
+                LayerManager.demote(this);
+            })
             .start();
     }
 
     public void closeAllSubMenus() {
-        for (ModuleItemView item : moduleItems.values()) {
-            item.closeSubMenuIfOpen();
-        }
+        moduleList.closeAllSubMenus();
     }
 
     public String getScaleInfo() {
@@ -499,13 +517,49 @@ maxWidth = Math.max(minWidth, Math.min(maxWidth, maxAllowedWidth)); // 你说屎
 
     @Override
     public void onThemeColorChanged(int newColor) {
-        for (ModuleItemView item : moduleItems.values()) {
-            item.updateThemeColor();
+        moduleList.updateThemeColor();
+    }
+
+    @Override
+    public void onRevealOffsetChanged(View child, int hiddenHeight) {
+        if (revealHiddenHeight == hiddenHeight) return;
+        revealHiddenHeight = hiddenHeight;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            invalidateOutline();
+        }
+        invalidate();
+    }
+
+    // 可能在预构建线程上创建，主题和活跃状态的订阅都放到挂载时在主线程做，避免两个线程同时改条目
+    // 未挂载期间错过的主题变化在挂载时补一次
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        ActivityTracker.addListener(this);
+        ThemeManager.addListener(this);
+        moduleList.updateThemeColor();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        ActivityTracker.removeListener(this);
+        ThemeManager.removeListener(this);
+        LayerManager.release(this);
+        LayerManager.release(moduleList);
+    }
+
+    @Override
+    public void onActiveChanged(boolean active) {
+        handler.removeCallbacks(statusChecker);
+        if (active && isExpanded && getVisibility() == View.VISIBLE) {
+            handler.post(statusChecker);
         }
     }
 
     public void destroy() {
         ThemeManager.removeListener(this);
+        if (dragTracker != null) dragTracker.recycle();
         if (expandAnimator != null) expandAnimator.cancel();
         handler.removeCallbacksAndMessages(null);
     }
@@ -1,38 +1,61 @@
 package com.phoenix.gui.ui;
 
-import android.animation.ArgbEvaluator;
 import android.animation.TimeInterpolator;
-import android.animation.ValueAnimator;
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
 import android.graphics.Typeface;
-import android.graphics.drawable.GradientDrawable;
 import android.os.Handler;
 import android.os.Looper;
-import android.view.Gravity;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.DisplayMetrics;
 import android.view.MotionEvent;
 import android.view.ViewConfiguration;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.OvershootInterpolator;
-import android.widget.FrameLayout;
 import android.widget.LinearLayout;
-import android.widget.TextView;
 
 import com.phoenix.gui.module.Module;
+import com.phoenix.gui.ui.perf.TextMetricsCache;
 import com.phoenix.gui.ui.widgets.SubMenuPanel;
 
-public class ModuleItemView extends LinearLayout {
+// 条目行直接画在顶部 padding 区域里，子菜单作为唯一的子视图排在下面
+public class ModuleItemView extends LinearLayout implements AnimationEngine.Target {
 
-    private final Module module;
+    private Module module;
     private final MenuView parentMenu;
 
-    private final FrameLayout mainContainer;
-    private final TextView normalText;
-    private final TextView boldText;
-    private final SubMenuPanel subMenuPanel;
+    // 子菜单在第一次长按时才创建，按下时提前预建
+    private SubMenuPanel subMenuPanel;
+    private final Runnable prebuildRunnable = this::ensureSubMenuPanel;
+
+    private final TextPaint normalPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint boldPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rowRect = new RectF();
+    private StaticLayout normalLayout;
+    private StaticLayout boldLayout;
+    private int rowHeight;
+    private int paddingH;
+    private int paddingV;
+
+    // 当前绘制状态
+    private float pressScale = 1f;
+    private float cornerRadius = 0f;
+    private int backgroundColor = Color.TRANSPARENT;
+    private float enabledFraction = 0f;
+
+    // 动画属性，统一交给 AnimationEngine 驱动
+    private static final int PROP_SCALE = 0;
+    private static final int PROP_RADIUS = 1;
+    private static final int PROP_COLOR = 2;
+    private static final int PROP_ENABLED = 3;
 
-    private ValueAnimator colorAnimator;
-    private ValueAnimator touchStateAnimator;
     private final Handler longPressHandler = new Handler(Looper.getMainLooper());
     private Runnable longPressRunnable;
     private boolean isLongPressing = false;
@@ -47,13 +70,15 @@ public class ModuleItemView extends LinearLayout {
     private boolean lastKnownState = false;
 
     private static final long LONG_PRESS_DELAY = 500L;
-        private static final float PRESS_SCALE = 0.95f; 
-    private static final int PRESS_ANIMATION_DURATION = 150; 
+    private static final float PRESS_SCALE = 0.95f;
+    private static final int PRESS_ANIMATION_DURATION = 150;
     private static final int RELEASE_ANIMATION_DURATION = 250;
+    private static final int STATE_ANIMATION_DURATION = 150;
     private static final int CORNER_RADIUS_DP = 8;
     private final float cornerRadiusPx;
-    private final TimeInterpolator pressInterpolator = new DecelerateInterpolator(); 
-    private final TimeInterpolator releaseInterpolator = new OvershootInterpolator(1.5f); 
+    private final TimeInterpolator pressInterpolator = new DecelerateInterpolator();
+    private final TimeInterpolator releaseInterpolator = new OvershootInterpolator(1.5f);
+    private static final TimeInterpolator stateInterpolator = new AccelerateDecelerateInterpolator();
 
     public ModuleItemView(Context context, Module module, MenuView parentMenu, float scaleFactor) {
         super(context);
@@ -66,31 +91,17 @@ public class ModuleItemView extends LinearLayout {
 
         setOrientation(VERTICAL);
         setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
+        setWillNotDraw(false);
 
-        mainContainer = createMainContainer();
-        addView(mainContainer);
+        normalPaint.setTypeface(Typeface.DEFAULT);
+        normalPaint.setColor(ThemeManager.getTextPrimary());
+        boldPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        boldPaint.setColor(ThemeManager.getTextOnTheme());
 
-        normalText = createNormalText();
-        boldText = createBoldText();
-        mainContainer.addView(normalText);
-        mainContainer.addView(boldText);
-
-        subMenuPanel = new SubMenuPanel(context, module, scaleFactor);
-        addView(subMenuPanel);
-
-        module.configureSubMenu(subMenuPanel);
-
-        subMenuPanel.setOnStateChangedListener(() -> {
-
-        });
+        // 在预构建线程上就把文字排版好
+        buildLayouts();
 
         updateVisualState(module.isEnabled(), false);
-
-        setupTouchListeners();
-
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.HONEYCOMB) {
-            setLayerType(LAYER_TYPE_HARDWARE, null);
-        }
     }
 
     public void syncWithModuleState(boolean currentState) {
@@ -102,174 +113,240 @@ public class ModuleItemView extends LinearLayout {
 
     public void updateScale(float scaleFactor) {
         this.scaleFactor = scaleFactor;
-        
-        LayoutParams params = (LayoutParams) mainContainer.getLayoutParams();
-        params.setMargins(0, 0, 0, 0);
-        mainContainer.setLayoutParams(params);
 
-        float textSize = 11f * scaleFactor;
-        int paddingV = scaled(7);
-        int paddingH = scaled(12);
+        buildLayouts();
 
-        normalText.setTextSize(textSize);
-        normalText.setPadding(paddingH, paddingV, paddingH, paddingV);
+        if (subMenuPanel != null) {
+            subMenuPanel.updateScale(scaleFactor);
+        }
 
-        boldText.setTextSize(textSize);
-        boldText.setPadding(paddingH, paddingV, paddingH, paddingV);
+        requestLayout();
+        invalidate();
+    }
 
-        subMenuPanel.updateScale(scaleFactor);
+    private void buildLayouts() {
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        float textSize = 11f * scaleFactor * metrics.scaledDensity;
+        paddingV = scaled(7);
+        paddingH = scaled(12);
+
+        normalPaint.setTextSize(textSize);
+        boldPaint.setTextSize(textSize);
+
+        String name = module.getName();
+        int textWidth = (int) Math.ceil(Math.max(
+                TextMetricsCache.measureText(normalPaint, name),
+                TextMetricsCache.measureText(boldPaint, name)));
+        normalLayout = buildLayout(name, normalPaint, textWidth);
+        boldLayout = buildLayout(name, boldPaint, textWidth);
+
+        rowHeight = paddingV * 2 + Math.max(lineHeight(normalPaint), lineHeight(boldPaint));
+        setPadding(0, rowHeight, 0, 0);
+        setMinimumWidth(paddingH * 2 + textWidth);
+    }
 
-        requestLayout();
+    private static StaticLayout buildLayout(String text, TextPaint paint, int width) {
+        return StaticLayout.Builder.obtain(text, 0, text.length(), paint, Math.max(1, width))
+                .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                .setIncludePad(true)
+                .setMaxLines(1)
+                .build();
     }
 
-    private int scaled(int baseDp) {
-        return (int) (dpToPx(baseDp) * scaleFactor);
+    // 单行 StaticLayout 开启 includePad 时的高度
+    private static int lineHeight(TextPaint paint) {
+        Paint.FontMetricsInt fm = paint.getFontMetricsInt();
+        return fm.bottom - fm.top;
     }
 
-    private FrameLayout createMainContainer() {
-        FrameLayout container = new FrameLayout(getContext());
-        
-        LayoutParams params = new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
-        params.setMargins(0, 0, 0, 0);
-        container.setLayoutParams(params);
+    // 列表按缩放缓存行高，不需要创建条目
+    public static int measureRowHeight(Context context, float scaleFactor, TextPaint paint) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int paddingV = (int) ((int) (7 * metrics.density) * scaleFactor);
+        paint.setTextSize(11f * scaleFactor * metrics.scaledDensity);
+        paint.setTypeface(Typeface.DEFAULT);
+        int normalHeight = lineHeight(paint);
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        return paddingV * 2 + Math.max(normalHeight, lineHeight(paint));
+    }
 
-        GradientDrawable initialBackground = new GradientDrawable();
-        initialBackground.setColor(Color.TRANSPARENT);
-        initialBackground.setCornerRadius(0f);
-        container.setBackground(initialBackground);
+    // 复用时换绑模块，旧的子菜单直接丢掉
+    public void bind(Module module) {
+        cancelAllAnimations();
+        if (this.module != module) {
+            this.module = module;
+            if (subMenuPanel != null) {
+                removeView(subMenuPanel);
+                subMenuPanel = null;
+            }
+            buildLayouts();
+        }
+        pressScale = 1f;
+        lastKnownState = module.isEnabled();
+        setStateImmediately(lastKnownState);
+    }
 
-        return container;
+    public Module getModule() {
+        return module;
     }
 
-    
-
-    private TextView createNormalText() {
-        TextView textView = new TextView(getContext());
-        textView.setText(module.getName());
-        textView.setTextSize(11f * scaleFactor);
-        textView.setTextColor(ThemeManager.getTextPrimary());
-        textView.setGravity(Gravity.START | Gravity.CENTER_VERTICAL);
-        int paddingV = scaled(7);
-        int paddingH = scaled(12);
-        textView.setPadding(paddingH, paddingV, paddingH, paddingV);
-        textView.setTypeface(Typeface.DEFAULT);
-        textView.setLayoutParams(new FrameLayout.LayoutParams(
-                FrameLayout.LayoutParams.MATCH_PARENT,
-                FrameLayout.LayoutParams.WRAP_CONTENT
-        ));
-        return textView;
+    // 子菜单展开或正在收起时不能被回收
+    public boolean isPinned() {
+        return subMenuPanel != null && subMenuPanel.getVisibility() != GONE;
     }
 
-    private TextView createBoldText() {
-        TextView textView = new TextView(getContext());
-        textView.setText(module.getName());
-        textView.setTextSize(11f * scaleFactor);
-        textView.setTextColor(ThemeManager.getTextOnTheme());
-        textView.setGravity(Gravity.START | Gravity.CENTER_VERTICAL);
-        int paddingV = scaled(7);
-        int paddingH = scaled(12);
-        textView.setPadding(paddingH, paddingV, paddingH, paddingV);
-        textView.setTypeface(Typeface.DEFAULT_BOLD);
-        textView.setLayoutParams(new FrameLayout.LayoutParams(
-                FrameLayout.LayoutParams.MATCH_PARENT,
-                FrameLayout.LayoutParams.WRAP_CONTENT
-        ));
-        textView.setAlpha(0f);
-        return textView;
+    private int scaled(int baseDp) {
+        return (int) (dpToPx(baseDp) * scaleFactor);
     }
 
+    // 不创建视图直接算出条目宽度，菜单懒加载前用来确定尺寸
+    public static int measureWidth(Context context, Module module, float scaleFactor, TextPaint paint) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int paddingH = (int) ((int) (12 * metrics.density) * scaleFactor);
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        paint.setTextSize(11f * scaleFactor * metrics.scaledDensity);
+        return paddingH * 2 + (int) Math.ceil(TextMetricsCache.measureText(paint, module.getName()));
+    }
 
-    
-    private void setupTouchListeners() {
-        mainContainer.setOnTouchListener((v, event) -> {
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN:
-                    touchStartX = event.getX();
-                    touchStartY = event.getY();
-                    hasMoved = false;
-                    isLongPressing = false;
-
-                    longPressRunnable = () -> {
-                        if (!hasMoved) {
-                            isLongPressing = true;
-                            onLongPress();
-                        }
-                    };
-                    longPressHandler.postDelayed(longPressRunnable, LONG_PRESS_DELAY);
-
-                   
-                    animateTouchState(true);
-                    return true;
-
-                case MotionEvent.ACTION_MOVE:
-                    float deltaX = Math.abs(event.getX() - touchStartX);
-                    float deltaY = Math.abs(event.getY() - touchStartY);
-
-                    boolean isOutOfBounds = event.getX() < 0 || event.getX() > getWidth() || event.getY() < 0 || event.getY() > getHeight();
-
-                    if (!hasMoved && (deltaX > touchSlop || deltaY > touchSlop || isOutOfBounds)) {
-                        hasMoved = true;
-                        cancelLongPressDetection();
-                        
-                        animateTouchState(false);
-                    }
-                    return true;
+    private SubMenuPanel ensureSubMenuPanel() {
+        if (subMenuPanel == null) {
+            subMenuPanel = new SubMenuPanel(getContext(), module, scaleFactor);
+            module.configureSubMenu(subMenuPanel);
+            addView(subMenuPanel);
+        }
+        return subMenuPanel;
+    }
 
-                case MotionEvent.ACTION_UP:
-                case MotionEvent.ACTION_CANCEL:
-                    cancelLongPressDetection();
-                    
-                    animateTouchState(false);
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
 
-                    if (!hasMoved && !isLongPressing) {
-                        module.toggle();
-                        lastKnownState = module.isEnabled();
-                        updateVisualState(lastKnownState, true);
-                    }
+        int width = getWidth();
+        int save = canvas.save();
+        canvas.scale(pressScale, pressScale, width / 2f, rowHeight / 2f);
 
-                    isLongPressing = false;
-                    hasMoved = false;
-                    return true;
-            }
-            return false;
-        });
-    }
+        if (Color.alpha(backgroundColor) != 0) {
+            rowRect.set(0, 0, width, rowHeight);
+            backgroundPaint.setColor(backgroundColor);
+            canvas.drawRoundRect(rowRect, cornerRadius, cornerRadius, backgroundPaint);
+        }
 
-    private void animateTouchState(boolean pressed) {
-        if (touchStateAnimator != null) {
-            touchStateAnimator.cancel();
+        canvas.translate(paddingH, paddingV);
+        if (enabledFraction < 1f) {
+            drawText(canvas, normalLayout, normalPaint, ThemeManager.getTextPrimary(), 1f - enabledFraction);
         }
+        if (enabledFraction > 0f) {
+            drawText(canvas, boldLayout, boldPaint, ThemeManager.getTextOnTheme(), enabledFraction);
+        }
+
+        canvas.restoreToCount(save);
+    }
 
-       
-        final float startScale = mainContainer.getScaleX();
-        final float endScale = pressed ? PRESS_SCALE : 1.0f;
+    private static void drawText(Canvas canvas, StaticLayout layout, TextPaint paint, int color, float alpha) {
+        paint.setColor(color);
+        paint.setAlpha((int) (Color.alpha(color) * alpha));
+        layout.draw(canvas);
+    }
 
-        final GradientDrawable background = (GradientDrawable) mainContainer.getBackground();
-        final float startRadius = background.getCornerRadii() != null ? background.getCornerRadii()[0] : 0f;
-        final float endRadius = pressed ? cornerRadiusPx : 0f;
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                if (event.getY() > rowHeight) {
+                    return false;
+                }
+                touchStartX = event.getX();
+                touchStartY = event.getY();
+                hasMoved = false;
+                isLongPressing = false;
+
+                longPressRunnable = () -> {
+                    if (!hasMoved) {
+                        isLongPressing = true;
+                        onLongPress();
+                    }
+                };
+                longPressHandler.postDelayed(longPressRunnable, LONG_PRESS_DELAY);
+                // 超过点击时长仍按着，大概率是长按，提前把子菜单建好
+                if (subMenuPanel == null) {
+                    longPressHandler.postDelayed(prebuildRunnable, ViewConfiguration.getTapTimeout());
+                }
 
-        
-        touchStateAnimator = ValueAnimator.ofFloat(0f, 1f);
-        touchStateAnimator.setDuration(pressed ? PRESS_ANIMATION_DURATION : RELEASE_ANIMATION_DURATION);
-        touchStateAnimator.setInterpolator(pressed ? pressInterpolator : releaseInterpolator);
+                animateTouchState(true);
+                return true;
 
-        touchStateAnimator.addUpdateListener(animation -> {
-            float fraction = animation.getAnimatedFraction(); 
-            float currentScale = startScale + (endScale - startScale) * fraction;
-            float currentRadius = startRadius + (endRadius - startRadius) * fraction;
+            case MotionEvent.ACTION_MOVE:
+                float deltaX = Math.abs(event.getX() - touchStartX);
+                float deltaY = Math.abs(event.getY() - touchStartY);
+
+                boolean isOutOfBounds = event.getX() < 0 || event.getX() > getWidth() || event.getY() < 0 || event.getY() > getHeight();
+
+                if (!hasMoved && (deltaX > touchSlop || deltaY > touchSlop || isOutOfBounds)) {
+                    hasMoved = true;
+                    cancelLongPressDetection();
+
+                    animateTouchState(false);
+                }
+                return true;
+
+            case MotionEvent.ACTION_UP:
+                cancelLongPressDetection();
+
+                animateTouchState(false);
+
+                if (!hasMoved && !isLongPressing) {
+                    module.toggle();
+                    lastKnownState = module.isEnabled();
+                    updateVisualState(lastKnownState, true);
+                }
+
+                isLongPressing = false;
+                hasMoved = false;
+                return true;
+
+            // 列表开始滚动时会收到 CANCEL，不能当成点击
+            case MotionEvent.ACTION_CANCEL:
+                cancelLongPressDetection();
+                animateTouchState(false);
+                isLongPressing = false;
+                hasMoved = false;
+                return true;
+        }
+        return false;
+    }
 
-            mainContainer.setScaleX(currentScale);
-            mainContainer.setScaleY(currentScale);
-            background.setCornerRadius(currentRadius);
-        });
+    private void animateTouchState(boolean pressed) {
+        long duration = pressed ? PRESS_ANIMATION_DURATION : RELEASE_ANIMATION_DURATION;
+        TimeInterpolator interpolator = pressed ? pressInterpolator : releaseInterpolator;
+        AnimationEngine.animateFloat(this, PROP_SCALE, pressScale, pressed ? PRESS_SCALE : 1.0f,
+                duration, interpolator);
+        AnimationEngine.animateFloat(this, PROP_RADIUS, cornerRadius, pressed ? cornerRadiusPx : 0f,
+                duration, interpolator);
+    }
 
-        touchStateAnimator.start();
+    @Override
+    public void onAnimationUpdate(int property, float value) {
+        if (property == PROP_SCALE) {
+            pressScale = value;
+        } else if (property == PROP_RADIUS) {
+            cornerRadius = value;
+        } else if (property == PROP_ENABLED) {
+            enabledFraction = value;
+        }
+        invalidate();
     }
 
+    @Override
+    public void onAnimationUpdate(int property, int value) {
+        if (property == PROP_COLOR) {
+            backgroundColor = value;
+            invalidate();
+        }
+    }
 
     private void onLongPress() {
         performHapticFeedback(android.view.HapticFeedbackConstants.LONG_PRESS);
-        subMenuPanel.toggle();
+        ensureSubMenuPanel().toggle();
     }
 
     private void cancelLongPressDetection() {
@@ -277,9 +354,10 @@ public class ModuleItemView extends LinearLayout {
             longPressHandler.removeCallbacks(longPressRunnable);
         }
         longPressRunnable = null;
+        longPressHandler.removeCallbacks(prebuildRunnable);
     }
 
-    
+
     public void updateVisualState(boolean isEnabled, boolean animated) {
         if (animated) {
             animateToState(isEnabled);
@@ -289,56 +367,37 @@ public class ModuleItemView extends LinearLayout {
     }
 
     private void setStateImmediately(boolean isEnabled) {
-        GradientDrawable bg = (GradientDrawable) mainContainer.getBackground();
-        bg.setColor(isEnabled ? ThemeManager.getThemeColor() : Color.TRANSPARENT);
-        bg.setCornerRadius(0f);
-
-        normalText.setAlpha(isEnabled ? 0f : 1f);
-        boldText.setAlpha(isEnabled ? 1f : 0f);
+        AnimationEngine.cancel(this, PROP_COLOR);
+        AnimationEngine.cancel(this, PROP_ENABLED);
+        backgroundColor = isEnabled ? ThemeManager.getThemeColor() : Color.TRANSPARENT;
+        cornerRadius = 0f;
+        enabledFraction = isEnabled ? 1f : 0f;
+        invalidate();
     }
 
     private void animateToState(boolean isEnabled) {
-        if (colorAnimator != null) {
-            colorAnimator.cancel();
-        }
-
-        GradientDrawable bg = (GradientDrawable) mainContainer.getBackground();
-
-        int fromColor = (bg.getColor() != null) ? bg.getColor().getDefaultColor() : Color.TRANSPARENT;
-        int toColor = isEnabled ? ThemeManager.getThemeColor() : Color.TRANSPARENT;
-
-        colorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), fromColor, toColor);
-        colorAnimator.setDuration(150);
-        colorAnimator.addUpdateListener(animator -> {
-            bg.setColor((int) animator.getAnimatedValue());
-        });
-        colorAnimator.start();
-
-        normalText.animate().alpha(isEnabled ? 0f : 1f).setDuration(150).start();
-        boldText.animate().alpha(isEnabled ? 1f : 0f).setDuration(150).start();
+        AnimationEngine.animateArgb(this, PROP_COLOR, backgroundColor,
+                isEnabled ? ThemeManager.getThemeColor() : Color.TRANSPARENT,
+                STATE_ANIMATION_DURATION, stateInterpolator);
+        AnimationEngine.animateFloat(this, PROP_ENABLED, enabledFraction, isEnabled ? 1f : 0f,
+                STATE_ANIMATION_DURATION, stateInterpolator);
     }
 
-
     public void updateThemeColor() {
-        if (module.isEnabled()) {
-            GradientDrawable bg = (GradientDrawable) mainContainer.getBackground();
-            bg.setColor(ThemeManager.getThemeColor());
+        if (module.isEnabled() && !AnimationEngine.isRunning(this, PROP_COLOR)) {
+            backgroundColor = ThemeManager.getThemeColor();
+            invalidate();
         }
     }
 
     public void closeSubMenuIfOpen() {
-        if (subMenuPanel.isOpen()) {
+        if (subMenuPanel != null && subMenuPanel.isOpen()) {
             subMenuPanel.forceCollapse();
         }
     }
 
     public void cancelAllAnimations() {
-        if (colorAnimator != null) colorAnimator.cancel();
-        
-        if (touchStateAnimator != null) touchStateAnimator.cancel();
-        mainContainer.animate().cancel(); //保留
-        normalText.animate().cancel();
-        boldText.animate().cancel();
+        AnimationEngine.cancelAll(this);
         cancelLongPressDetection();
     }
 
@@ -352,4 +411,4 @@ public class ModuleItemView extends LinearLayout {
     private int dpToPx(int dp) {
         return (int) (dp * getResources().getDisplayMetrics().density);
     }
-}
\ No newline at end of file
+}
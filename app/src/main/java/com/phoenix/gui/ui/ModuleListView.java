@@ -0,0 +1,417 @@
+package com.phoenix.gui.ui;
+
+import android.content.Context;
+import android.graphics.Paint;
+import android.text.TextPaint;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.widget.OverScroller;
+
+import com.phoenix.gui.module.Module;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+
+// 只创建屏幕内可见的条目，滚出去的条目回收复用
+public class ModuleListView extends ViewGroup implements AnimationUtils.RevealHost {
+
+    private final MenuView parentMenu;
+    private List<Module> modules = Collections.emptyList();
+    private float scaleFactor;
+
+    // 行高只跟缩放有关，按缩放缓存
+    private int rowHeight;
+    private float rowHeightScale = -1f;
+    private final TextPaint measurePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+
+    // 打开子菜单的行比标准行高，按位置记录多出来的高度
+    private final SparseIntArray extraHeights = new SparseIntArray();
+    // 子菜单展开/收起动画中还没露出来的高度，布局时从额外高度里扣掉
+    private final SparseIntArray hiddenHeights = new SparseIntArray();
+    private final SparseArray<ModuleItemView> activeRows = new SparseArray<>();
+    private final ArrayDeque<ModuleItemView> scrapRows = new ArrayDeque<>();
+
+    private final OverScroller scroller;
+    private VelocityTracker velocityTracker;
+    // 拦截阶段已经记过这次 ACTION_DOWN
+    private boolean downTracked = false;
+    private final int touchSlop;
+    private final int minFlingVelocity;
+    private final int maxFlingVelocity;
+    private float touchStartY = 0f;
+    private float lastTouchY = 0f;
+    private boolean isDragging = false;
+
+    public ModuleListView(Context context, MenuView parentMenu, float scaleFactor) {
+        super(context);
+        this.parentMenu = parentMenu;
+        this.scaleFactor = scaleFactor;
+
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        touchSlop = configuration.getScaledTouchSlop();
+        minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        scroller = new OverScroller(context);
+
+        setVerticalScrollBarEnabled(false);
+    }
+
+    public void setModules(List<Module> modules) {
+        this.modules = modules;
+        recycleAllRows();
+        extraHeights.clear();
+        scrollTo(0, 0);
+        requestLayout();
+    }
+
+    public void setScaleFactor(float scaleFactor) {
+        this.scaleFactor = scaleFactor;
+        for (int i = 0; i < activeRows.size(); i++) {
+            activeRows.valueAt(i).updateScale(scaleFactor);
+        }
+        for (ModuleItemView row : scrapRows) {
+            row.updateScale(scaleFactor);
+        }
+        extraHeights.clear();
+        requestLayout();
+    }
+
+    public int getRowHeight() {
+        if (rowHeightScale != scaleFactor) {
+            rowHeight = ModuleItemView.measureRowHeight(getContext(), scaleFactor, measurePaint);
+            rowHeightScale = scaleFactor;
+        }
+        return rowHeight;
+    }
+
+    public int getContentHeight() {
+        int height = modules.size() * getRowHeight();
+        for (int i = 0; i < extraHeights.size(); i++) {
+            height += extraAt(i);
+        }
+        return height;
+    }
+
+    // 在后台预构建时先备好一屏的条目
+    public void prefill(int viewportHeight) {
+        int count = Math.min(modules.size(), viewportHeight / getRowHeight() + 1);
+        for (int i = scrapRows.size(); i < count; i++) {
+            scrapRows.addLast(new ModuleItemView(getContext(), modules.get(i), parentMenu, scaleFactor));
+        }
+    }
+
+    public void syncModuleStates() {
+        for (int i = 0; i < activeRows.size(); i++) {
+            ModuleItemView row = activeRows.valueAt(i);
+            row.syncWithModuleState(row.getModule().isEnabled());
+        }
+    }
+
+    public void updateThemeColor() {
+        for (int i = 0; i < activeRows.size(); i++) {
+            activeRows.valueAt(i).updateThemeColor();
+        }
+    }
+
+    public void closeAllSubMenus() {
+        for (int i = 0; i < activeRows.size(); i++) {
+            activeRows.valueAt(i).closeSubMenuIfOpen();
+        }
+        requestLayout();
+    }
+
+    public void cancelAllAnimations() {
+        scroller.forceFinished(true);
+        for (int i = 0; i < activeRows.size(); i++) {
+            activeRows.valueAt(i).cancelAllAnimations();
+        }
+    }
+
+    private int rowTop(int position) {
+        int top = position * getRowHeight();
+        for (int i = 0; i < extraHeights.size(); i++) {
+            if (extraHeights.keyAt(i) >= position) break;
+            top += extraAt(i);
+        }
+        return top;
+    }
+
+    private int rowAt(int y) {
+        int height = getRowHeight();
+        int offset = 0;
+        for (int i = 0; i < extraHeights.size(); i++) {
+            int position = extraHeights.keyAt(i);
+            int top = position * height + offset;
+            if (y < top) break;
+            if (y < top + height + extraAt(i)) return position;
+            offset += extraAt(i);
+        }
+        return Math.max(0, Math.min((y - offset) / height, modules.size() - 1));
+    }
+
+    private int extraAt(int index) {
+        int extra = extraHeights.valueAt(index) - hiddenHeights.get(extraHeights.keyAt(index), 0);
+        return Math.max(0, extra);
+    }
+
+    // 子菜单动画每帧只重新摆放行的位置，不触发整棵树的布局
+    @Override
+    public void onRevealOffsetChanged(View child, int hiddenHeight) {
+        int index = activeRows.indexOfValue((ModuleItemView) child);
+        if (index < 0) return;
+        int position = activeRows.keyAt(index);
+        if (hiddenHeight > 0) {
+            hiddenHeights.put(position, hiddenHeight);
+        } else {
+            hiddenHeights.delete(position);
+        }
+        layoutRows();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+
+        int height;
+        if (heightMode == MeasureSpec.EXACTLY) {
+            height = heightSize;
+        } else if (heightMode == MeasureSpec.AT_MOST) {
+            height = Math.min(getContentHeight(), heightSize);
+        } else {
+            height = getContentHeight();
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        layoutRows();
+    }
+
+    private void layoutRows() {
+        int width = getWidth();
+        if (width == 0 || modules.isEmpty()) {
+            recycleAllRows();
+            return;
+        }
+
+        int scrollY = getScrollY();
+        int first = rowAt(scrollY);
+        int last = rowAt(scrollY + Math.max(getHeight(), 1) - 1);
+
+        // 先回收可见范围外、没有展开子菜单的行
+        for (int i = activeRows.size() - 1; i >= 0; i--) {
+            int position = activeRows.keyAt(i);
+            if (position >= first && position <= last) continue;
+            ModuleItemView row = activeRows.valueAt(i);
+            if (row.isPinned()) continue;
+            activeRows.removeAt(i);
+            extraHeights.delete(position);
+            hiddenHeights.delete(position);
+            removeViewInLayout(row);
+            scrapRows.addLast(row);
+        }
+
+        int widthSpec = MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY);
+        int heightSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+
+        // 上方被固定的行高度可能在变，先量它们，下面的行位置才准确
+        for (int i = 0; i < activeRows.size(); i++) {
+            int position = activeRows.keyAt(i);
+            if (position >= first) break;
+            measureAndPlace(activeRows.valueAt(i), position, widthSpec, heightSpec);
+        }
+
+        first = rowAt(scrollY);
+        for (int position = first; position <= last; position++) {
+            ModuleItemView row = activeRows.get(position);
+            if (row == null) {
+                row = obtainRow(position);
+            }
+            measureAndPlace(row, position, widthSpec, heightSpec);
+            // 展开或收起子菜单后这一行高度变化，可见范围也要跟着变
+            last = rowAt(scrollY + Math.max(getHeight(), 1) - 1);
+        }
+
+        // 被固定住的行即使不在可见范围内也要保持位置
+        for (int i = 0; i < activeRows.size(); i++) {
+            int position = activeRows.keyAt(i);
+            if (position > last) {
+                measureAndPlace(activeRows.valueAt(i), position, widthSpec, heightSpec);
+            }
+        }
+    }
+
+    private void measureAndPlace(ModuleItemView row, int position, int widthSpec, int heightSpec) {
+        if (row.isLayoutRequested() || row.getMeasuredWidth() != MeasureSpec.getSize(widthSpec)) {
+            row.measure(widthSpec, heightSpec);
+        }
+        int height = row.getMeasuredHeight();
+        int extra = height - getRowHeight();
+        if (extra > 0) {
+            extraHeights.put(position, extra);
+        } else {
+            extraHeights.delete(position);
+        }
+
+        int top = rowTop(position);
+        row.layout(0, top, row.getMeasuredWidth(), top + height);
+    }
+
+    private ModuleItemView obtainRow(int position) {
+        Module module = modules.get(position);
+        ModuleItemView row = scrapRows.pollFirst();
+        if (row == null) {
+            row = new ModuleItemView(getContext(), module, parentMenu, scaleFactor);
+        } else {
+            row.bind(module);
+        }
+        activeRows.put(position, row);
+        addViewInLayout(row, -1, row.getLayoutParams(), true);
+        return row;
+    }
+
+    private void recycleAllRows() {
+        for (int i = 0; i < activeRows.size(); i++) {
+            ModuleItemView row = activeRows.valueAt(i);
+            row.closeSubMenuIfOpen();
+            scrapRows.addLast(row);
+        }
+        activeRows.clear();
+        hiddenHeights.clear();
+        removeAllViewsInLayout();
+    }
+
+    private int getMaxScrollY() {
+        return Math.max(0, getContentHeight() - getHeight());
+    }
+
+    @Override
+    public void scrollTo(int x, int y) {
+        super.scrollTo(0, Math.max(0, Math.min(y, getMaxScrollY())));
+    }
+
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        // 滚动只需要补上新露出来的行，不走完整的 layout
+        layoutRows();
+        invalidate();
+    }
+
+    @Override
+    public void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            scrollTo(0, scroller.getCurrY());
+            postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent event) {
+        trackVelocity(event);
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downTracked = true;
+                touchStartY = event.getY();
+                lastTouchY = touchStartY;
+                // 惯性滚动中按下直接接管
+                isDragging = !scroller.isFinished();
+                scroller.forceFinished(true);
+                break;
+
+            case MotionEvent.ACTION_MOVE:
+                if (!isDragging && Math.abs(event.getY() - touchStartY) > touchSlop) {
+                    isDragging = true;
+                    lastTouchY = event.getY();
+                }
+                break;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                isDragging = false;
+                releaseVelocityTracker();
+                break;
+        }
+        return isDragging;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        // 没有子视图接住 ACTION_DOWN 时同一个事件会先后经过拦截和这里，只记一次
+        boolean duplicateDown = event.getActionMasked() == MotionEvent.ACTION_DOWN && downTracked;
+        downTracked = false;
+        if (!duplicateDown) {
+            trackVelocity(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                touchStartY = event.getY();
+                lastTouchY = touchStartY;
+                scroller.forceFinished(true);
+                return true;
+
+            case MotionEvent.ACTION_MOVE:
+                float y = event.getY();
+                if (!isDragging && Math.abs(y - touchStartY) > touchSlop) {
+                    isDragging = true;
+                    lastTouchY = y;
+                }
+                if (isDragging) {
+                    getParent().requestDisallowInterceptTouchEvent(true);
+                    scrollBy(0, (int) (lastTouchY - y));
+                    lastTouchY = y;
+                }
+                return true;
+
+            case MotionEvent.ACTION_UP:
+                if (isDragging && velocityTracker != null) {
+                    velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                    int velocity = (int) velocityTracker.getYVelocity();
+                    if (Math.abs(velocity) > minFlingVelocity) {
+                        scroller.fling(0, getScrollY(), 0, -velocity, 0, 0, 0, getMaxScrollY());
+                        postInvalidateOnAnimation();
+                    }
+                }
+                isDragging = false;
+                releaseVelocityTracker();
+                return true;
+
+            case MotionEvent.ACTION_CANCEL:
+                isDragging = false;
+                releaseVelocityTracker();
+                return true;
+        }
+        return false;
+    }
+
+    private void trackVelocity(MotionEvent event) {
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        velocityTracker.addMovement(event);
+    }
+
+    private void releaseVelocityTracker() {
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        scroller.forceFinished(true);
+        releaseVelocityTracker();
+    }
+}
@@ -0,0 +1,141 @@
+package com.phoenix.gui.ui;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.widget.TextView;
+
+// 把整数和定点小数直接写进复用的 char[]，实时刷新的数字标签不用每次生成字符串
+public class NumberFormatter {
+
+    // 定点小数最多 4 位
+    private static final int MAX_DECIMALS = 4;
+    private static final long[] POW10 = {1L, 10L, 100L, 1000L, 10000L};
+
+    // long 最长 20 个字符，小数再加上小数点和 4 位
+    public static final int MAX_FIXED_CHARS = 26;
+
+    // 从 offset 开始写，返回写完之后的位置，调用方保证 buffer 够长
+    public static int formatInt(char[] buffer, int offset, long value) {
+        if (value < 0) {
+            buffer[offset++] = '-';
+            value = -value;
+        }
+        int start = offset;
+        do {
+            buffer[offset++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start, j = offset - 1; i < j; i++, j--) {
+            char c = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = c;
+        }
+        return offset;
+    }
+
+    // 四舍五入到 decimals 位，末尾的 0 保留，和 %.Nf 一致
+    public static int formatFixed(char[] buffer, int offset, double value, int decimals) {
+        decimals = Math.max(0, Math.min(MAX_DECIMALS, decimals));
+        long scaled = Math.round(Math.abs(value) * POW10[decimals]);
+        if (value < 0 && scaled != 0) {
+            buffer[offset++] = '-';
+        }
+        offset = formatInt(buffer, offset, scaled / POW10[decimals]);
+        if (decimals > 0) {
+            buffer[offset++] = '.';
+            long fraction = scaled % POW10[decimals];
+            for (long divisor = POW10[decimals - 1]; divisor > 0; divisor /= 10) {
+                buffer[offset++] = (char) ('0' + fraction / divisor % 10);
+            }
+        }
+        return offset;
+    }
+
+    // 一个标签一份缓冲，拼好后直接交给 TextView 或 Canvas，只有容量不够时才重新分配
+    public static final class Label {
+        private char[] chars;
+        private int length;
+
+        public Label(int capacity) {
+            chars = new char[Math.max(1, capacity)];
+        }
+
+        public Label clear() {
+            length = 0;
+            return this;
+        }
+
+        public Label append(char c) {
+            ensureCapacity(1);
+            chars[length++] = c;
+            return this;
+        }
+
+        public Label append(String text) {
+            if (text == null) return this;
+            int count = text.length();
+            ensureCapacity(count);
+            text.getChars(0, count, chars, length);
+            length += count;
+            return this;
+        }
+
+        public Label appendInt(long value) {
+            ensureCapacity(MAX_FIXED_CHARS);
+            length = formatInt(chars, length, value);
+            return this;
+        }
+
+        public Label appendFixed(double value, int decimals) {
+            ensureCapacity(MAX_FIXED_CHARS);
+            length = formatFixed(chars, length, value, decimals);
+            return this;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public char[] getChars() {
+            return chars;
+        }
+
+        public boolean contentEquals(CharSequence text) {
+            if (text == null || text.length() != length) return false;
+            for (int i = 0; i < length; i++) {
+                if (chars[i] != text.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        // TextView 内部复用同一个 CharWrapper，不会拷贝成 String；下次 applyTo 之前不要改内容
+        public void applyTo(TextView textView) {
+            textView.setText(chars, 0, length);
+        }
+
+        public void draw(Canvas canvas, float x, float y, Paint paint) {
+            canvas.drawText(chars, 0, length, x, y, paint);
+        }
+
+        public float measure(Paint paint) {
+            return paint.measureText(chars, 0, length);
+        }
+
+        // 需要交给只收 String 的接口时才用
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra <= chars.length) return;
+            char[] grown = new char[Math.max(chars.length * 2, length + extra)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+
+    private NumberFormatter() {
+
+    }
+}
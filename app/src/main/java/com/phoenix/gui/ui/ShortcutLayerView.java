@@ -0,0 +1,495 @@
+package com.phoenix.gui.ui;
+
+import android.animation.TimeInterpolator;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.os.SystemClock;
+import android.util.DisplayMetrics;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import com.phoenix.gui.module.Module;
+import com.phoenix.gui.ui.perf.TextMetricsCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 所有快捷按钮画在同一个视图里，点击通过网格查找，动画统一由绘制驱动
+public class ShortcutLayerView extends View
+        implements ThemeManager.OnThemeColorChangeListener, DragTracker.Callback {
+
+    private static final String PREF_NAME = "shortcut_button_positions";
+    private static final String KEY_PREFIX_X = "button_x_";
+    private static final String KEY_PREFIX_Y = "button_y_";
+
+    private static final long COLOR_DURATION = 150L;
+    private static final long STYLE_DURATION = 150L;
+    private static final long PRESS_DURATION = 100L;
+    private static final long APPEAR_DURATION = 200L;
+    private static final long CLICK_TIMEOUT = 300L;
+    private static final float PRESS_SCALE = 0.9f;
+
+    private static final class Pill {
+        final Module module;
+        final String key;
+
+        // 相对图层中心的偏移，和旧版按钮的 translation 一致
+        float offsetX;
+        float offsetY;
+        float width;
+        float height;
+        boolean positionDirty;
+
+        // 当前绘制的是否为开启样式
+        boolean enabledStyle;
+        boolean targetEnabled;
+
+        int color;
+        int fromColor;
+        int toColor;
+        long colorStart = -1;
+
+        long styleStart = -1;
+        float textAlpha = 1f;
+
+        float pressScale = 1f;
+        float pressFrom = 1f;
+        float pressTo = 1f;
+        long pressStart = -1;
+
+        float appear = 0f;
+        float appearFrom = 0f;
+        float appearTo = 1f;
+        long appearStart = -1;
+        boolean removing;
+
+        Pill(Module module) {
+            this.module = module;
+            this.key = module.getName().replaceAll("[^a-zA-Z0-9]", "_");
+        }
+    }
+
+    private final SharedPreferences preferences;
+    private final List<Pill> pills = new ArrayList<>();
+
+    // 点击检测用的网格，每格记录覆盖到它的按钮
+    private final List<List<Pill>> grid = new ArrayList<>();
+    private final int cellSize;
+    private int gridColumns;
+    private int gridRows;
+    private boolean gridDirty = true;
+
+    private final Paint backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint normalTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint boldTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF pillRect = new RectF();
+    private final TimeInterpolator interpolator = new AccelerateDecelerateInterpolator();
+
+    private final float cornerRadius;
+    private final int paddingH;
+    private final int paddingV;
+    private final float textBaseline;
+    private final int textHeight;
+
+    private final DragTracker dragTracker;
+    private Pill activePill;
+    private float downOffsetX;
+    private float downOffsetY;
+
+    public ShortcutLayerView(Context context) {
+        super(context);
+        this.preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.dragTracker = new DragTracker(context, this);
+
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        cornerRadius = dpToPx(20);
+        paddingH = dpToPx(12);
+        paddingV = dpToPx(8);
+        cellSize = dpToPx(96);
+
+        float textSize = 11f * metrics.scaledDensity;
+        normalTextPaint.setTextSize(textSize);
+        normalTextPaint.setTypeface(Typeface.DEFAULT);
+        normalTextPaint.setTextAlign(Paint.Align.CENTER);
+        boldTextPaint.setTextSize(textSize);
+        boldTextPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        boldTextPaint.setTextAlign(Paint.Align.CENTER);
+
+        // 和 TextView 默认的 includeFontPadding 保持一致
+        Paint.FontMetricsInt fm = boldTextPaint.getFontMetricsInt();
+        textHeight = fm.bottom - fm.top;
+        textBaseline = -fm.top - textHeight / 2f;
+    }
+
+    public boolean hasShortcut(Module module) {
+        return findPill(module) != null;
+    }
+
+    public void addShortcut(Module module) {
+        Pill pill = findPill(module);
+        if (pill != null) {
+            if (!pill.removing) return;
+            pill.removing = false;
+        } else {
+            pill = new Pill(module);
+            measurePill(pill);
+            loadPosition(pill);
+
+            boolean enabled = module.isEnabled();
+            pill.enabledStyle = enabled;
+            pill.targetEnabled = enabled;
+            pill.color = enabled ? ThemeManager.getThemeColor() : ThemeManager.getBgDisabled();
+            pills.add(pill);
+            gridDirty = true;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        pill.appearFrom = pill.appear;
+        pill.appearTo = 1f;
+        pill.appearStart = now;
+        postInvalidateOnAnimation();
+    }
+
+    public void removeShortcut(Module module) {
+        Pill pill = findPill(module);
+        if (pill == null || pill.removing) return;
+
+        pill.removing = true;
+        pill.appearFrom = pill.appear;
+        pill.appearTo = 0f;
+        pill.appearStart = SystemClock.uptimeMillis();
+        postInvalidateOnAnimation();
+    }
+
+    public void updateStyle(Module module) {
+        Pill pill = findPill(module);
+        if (pill == null) return;
+
+        boolean enabled = module.isEnabled();
+        if (pill.targetEnabled == enabled) return;
+        pill.targetEnabled = enabled;
+
+        long now = SystemClock.uptimeMillis();
+        startColor(pill, enabled ? ThemeManager.getThemeColor() : ThemeManager.getBgDisabled(), now);
+        pill.styleStart = now;
+        postInvalidateOnAnimation();
+    }
+
+    public void destroy() {
+        dragTracker.recycle();
+        savePositions(true);
+        pills.clear();
+        activePill = null;
+        gridDirty = true;
+    }
+
+    private Pill findPill(Module module) {
+        for (int i = 0; i < pills.size(); i++) {
+            if (pills.get(i).module == module) return pills.get(i);
+        }
+        return null;
+    }
+
+    private void measurePill(Pill pill) {
+        String name = pill.module.getName();
+        float textWidth = Math.max(
+                TextMetricsCache.measureText(normalTextPaint, name),
+                TextMetricsCache.measureText(boldTextPaint, name));
+        pill.width = (float) Math.ceil(textWidth) + paddingH * 2;
+        pill.height = textHeight + paddingV * 2;
+    }
+
+    private void loadPosition(Pill pill) {
+        if (preferences.contains(KEY_PREFIX_X + pill.key) && preferences.contains(KEY_PREFIX_Y + pill.key)) {
+            pill.offsetX = preferences.getInt(KEY_PREFIX_X + pill.key, 0);
+            pill.offsetY = preferences.getInt(KEY_PREFIX_Y + pill.key, 0);
+            return;
+        }
+
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        int estimatedWidth = dpToPx(150);
+        int estimatedHeight = dpToPx(50);
+        int margin = dpToPx(30);
+
+        int minX = margin - metrics.widthPixels / 2 + estimatedWidth / 2;
+        int maxX = metrics.widthPixels / 2 - estimatedWidth / 2 - margin;
+        int minY = margin - metrics.heightPixels / 2 + estimatedHeight / 2;
+        int maxY = metrics.heightPixels / 2 - estimatedHeight / 2 - margin;
+
+        if (maxX > minX) {
+            pill.offsetX = minX + (int) (Math.random() * (maxX - minX));
+        }
+        if (maxY > minY) {
+            pill.offsetY = minY + (int) (Math.random() * (maxY - minY));
+        }
+        pill.positionDirty = true;
+    }
+
+    // 一次提交所有改动过的位置
+    private void savePositions(boolean all) {
+        SharedPreferences.Editor editor = null;
+        for (int i = 0; i < pills.size(); i++) {
+            Pill pill = pills.get(i);
+            if (!all && !pill.positionDirty) continue;
+            if (editor == null) editor = preferences.edit();
+            editor.putInt(KEY_PREFIX_X + pill.key, (int) pill.offsetX);
+            editor.putInt(KEY_PREFIX_Y + pill.key, (int) pill.offsetY);
+            pill.positionDirty = false;
+        }
+        if (editor != null) {
+            editor.apply();
+        }
+    }
+
+    private void startColor(Pill pill, int target, long now) {
+        pill.fromColor = pill.color;
+        pill.toColor = target;
+        pill.colorStart = now;
+    }
+
+    private void startPress(Pill pill, boolean pressed) {
+        pill.pressFrom = pill.pressScale;
+        pill.pressTo = pressed ? PRESS_SCALE : 1f;
+        pill.pressStart = SystemClock.uptimeMillis();
+        postInvalidateOnAnimation();
+    }
+
+    private float progress(long start, long duration, long now) {
+        float t = Math.min(1f, (now - start) / (float) duration);
+        return interpolator.getInterpolation(t);
+    }
+
+    // 推进一个按钮的所有动画，返回是否还需要下一帧
+    private boolean step(Pill pill, long now) {
+        boolean running = false;
+
+        if (pill.colorStart >= 0) {
+            float f = progress(pill.colorStart, COLOR_DURATION, now);
+            pill.color = AnimationUtils.evaluateArgb(f, pill.fromColor, pill.toColor);
+            if (now - pill.colorStart >= COLOR_DURATION) pill.colorStart = -1;
+            else running = true;
+        }
+
+        // 文字先淡到一半，切换样式后再淡回来
+        if (pill.styleStart >= 0) {
+            long half = STYLE_DURATION / 2;
+            long elapsed = now - pill.styleStart;
+            if (elapsed < half) {
+                pill.textAlpha = 1f - 0.5f * progress(pill.styleStart, half, now);
+            } else {
+                pill.enabledStyle = pill.targetEnabled;
+                pill.textAlpha = 0.5f + 0.5f * progress(pill.styleStart + half, half, now);
+            }
+            if (elapsed >= STYLE_DURATION) {
+                pill.styleStart = -1;
+                pill.textAlpha = 1f;
+            } else {
+                running = true;
+            }
+        }
+
+        if (pill.pressStart >= 0) {
+            float f = progress(pill.pressStart, PRESS_DURATION, now);
+            pill.pressScale = pill.pressFrom + (pill.pressTo - pill.pressFrom) * f;
+            if (now - pill.pressStart >= PRESS_DURATION) pill.pressStart = -1;
+            else running = true;
+        }
+
+        if (pill.appearStart >= 0) {
+            float f = progress(pill.appearStart, APPEAR_DURATION, now);
+            pill.appear = pill.appearFrom + (pill.appearTo - pill.appearFrom) * f;
+            if (now - pill.appearStart >= APPEAR_DURATION) pill.appearStart = -1;
+            else running = true;
+        }
+
+        return running;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        long now = SystemClock.uptimeMillis();
+        boolean running = false;
+        float centerX = getWidth() / 2f;
+        float centerY = getHeight() / 2f;
+
+        for (int i = 0; i < pills.size(); i++) {
+            Pill pill = pills.get(i);
+            running |= step(pill, now);
+
+            if (pill.removing && pill.appearStart < 0) {
+                pills.remove(i--);
+                gridDirty = true;
+                continue;
+            }
+            if (pill.appear <= 0f) continue;
+
+            float scale = pill.pressScale * (0.5f + 0.5f * pill.appear);
+            int save = canvas.save();
+            canvas.translate(centerX + pill.offsetX, centerY + pill.offsetY);
+            canvas.scale(scale, scale);
+
+            float halfW = pill.width / 2f;
+            float halfH = pill.height / 2f;
+            pillRect.set(-halfW, -halfH, halfW, halfH);
+            backgroundPaint.setColor(pill.color);
+            backgroundPaint.setAlpha((int) (Color.alpha(pill.color) * pill.appear));
+            canvas.drawRoundRect(pillRect, cornerRadius, cornerRadius, backgroundPaint);
+
+            Paint textPaint = pill.enabledStyle ? boldTextPaint : normalTextPaint;
+            textPaint.setColor(pill.enabledStyle ? ThemeManager.getTextOnTheme() : ThemeManager.getTextPrimary());
+            textPaint.setAlpha((int) (textPaint.getAlpha() * pill.textAlpha * pill.appear));
+            canvas.drawText(pill.module.getName(), 0, textBaseline, textPaint);
+
+            canvas.restoreToCount(save);
+        }
+
+        if (running) {
+            postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        gridDirty = true;
+    }
+
+    private void rebuildGrid() {
+        gridDirty = false;
+        gridColumns = Math.max(1, (getWidth() + cellSize - 1) / cellSize);
+        gridRows = Math.max(1, (getHeight() + cellSize - 1) / cellSize);
+        int cells = gridColumns * gridRows;
+        while (grid.size() < cells) {
+            grid.add(new ArrayList<>());
+        }
+        for (int i = 0; i < grid.size(); i++) {
+            grid.get(i).clear();
+        }
+
+        float centerX = getWidth() / 2f;
+        float centerY = getHeight() / 2f;
+        for (int i = 0; i < pills.size(); i++) {
+            Pill pill = pills.get(i);
+            int left = cellColumn(centerX + pill.offsetX - pill.width / 2f);
+            int right = cellColumn(centerX + pill.offsetX + pill.width / 2f);
+            int top = cellRow(centerY + pill.offsetY - pill.height / 2f);
+            int bottom = cellRow(centerY + pill.offsetY + pill.height / 2f);
+            for (int row = top; row <= bottom; row++) {
+                for (int column = left; column <= right; column++) {
+                    grid.get(row * gridColumns + column).add(pill);
+                }
+            }
+        }
+    }
+
+    private int cellColumn(float x) {
+        return Math.max(0, Math.min(gridColumns - 1, (int) (x / cellSize)));
+    }
+
+    private int cellRow(float y) {
+        return Math.max(0, Math.min(gridRows - 1, (int) (y / cellSize)));
+    }
+
+    private Pill hitTest(float x, float y) {
+        if (x < 0 || y < 0 || x >= getWidth() || y >= getHeight()) return null;
+        if (gridDirty) rebuildGrid();
+
+        List<Pill> candidates = grid.get(cellRow(y) * gridColumns + cellColumn(x));
+        float centerX = getWidth() / 2f;
+        float centerY = getHeight() / 2f;
+        // 后画的在上面，倒序查找
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            Pill pill = candidates.get(i);
+            if (pill.removing) continue;
+            float dx = Math.abs(x - (centerX + pill.offsetX));
+            float dy = Math.abs(y - (centerY + pill.offsetY));
+            if (dx <= pill.width / 2f && dy <= pill.height / 2f) return pill;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            // 没点中按钮时不消费，事件交给下面的视图
+            activePill = hitTest(event.getX(), event.getY());
+        }
+        if (activePill == null) return false;
+
+        boolean handled = dragTracker.onTouchEvent(this, event);
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            activePill = null;
+        }
+        return handled;
+    }
+
+    @Override
+    public void onPress(boolean pressed) {
+        startPress(activePill, pressed);
+    }
+
+    @Override
+    public void onDragStart() {
+        downOffsetX = activePill.offsetX;
+        downOffsetY = activePill.offsetY;
+    }
+
+    @Override
+    public void onDragMove(float offsetX, float offsetY) {
+        activePill.offsetX = downOffsetX + offsetX;
+        activePill.offsetY = downOffsetY + offsetY;
+        invalidate();
+    }
+
+    @Override
+    public void onDragEnd(float velocityX, float velocityY) {
+        activePill.positionDirty = true;
+        gridDirty = true;
+        savePositions(false);
+    }
+
+    @Override
+    public void onClick(long pressDuration) {
+        if (pressDuration < CLICK_TIMEOUT) {
+            activePill.module.toggle();
+            updateStyle(activePill.module);
+        }
+    }
+
+    @Override
+    public void onThemeColorChanged(int newColor) {
+        long now = SystemClock.uptimeMillis();
+        for (int i = 0; i < pills.size(); i++) {
+            Pill pill = pills.get(i);
+            if (pill.targetEnabled) {
+                startColor(pill, newColor, now);
+            }
+        }
+        postInvalidateOnAnimation();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        ThemeManager.addListener(this);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        ThemeManager.removeListener(this);
+    }
+
+    private int dpToPx(int dp) {
+        return (int) (dp * getResources().getDisplayMetrics().density);
+    }
+}
@@ -113,18 +113,27 @@ public class ThemeManager {
         setThemeColor(Color.HSVToColor(new float[]{hue, saturation, value}));
     }
 
+    // 菜单会在后台线程构建并注册监听，这里需要加锁
     public static void addListener(OnThemeColorChangeListener listener) {
-        if (!listeners.contains(listener)) {
-            listeners.add(listener);
+        synchronized (listeners) {
+            if (!listeners.contains(listener)) {
+                listeners.add(listener);
+            }
         }
     }
 
     public static void removeListener(OnThemeColorChangeListener listener) {
-        listeners.remove(listener);
+        synchronized (listeners) {
+            listeners.remove(listener);
+        }
     }
 
     private static void notifyListeners() {
-        for (OnThemeColorChangeListener listener : new ArrayList<>(listeners)) {
+        List<OnThemeColorChangeListener> snapshot;
+        synchronized (listeners) {
+            snapshot = new ArrayList<>(listeners);
+        }
+        for (OnThemeColorChangeListener listener : snapshot) {
             try {
                 listener.onThemeColorChanged(themeColor);
             } catch (Exception e) {
@@ -1,6 +1,7 @@
 package com.phoenix.gui.ui;
 
 import android.app.Activity;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.os.Build;
 import android.view.View;
@@ -12,6 +13,11 @@ import com.phoenix.gui.module.ModuleManager;
 import com.phoenix.gui.module.ModuleToggleListener;
 import com.phoenix.gui.module.ShortcutToggleListener;
 import com.phoenix.gui.ui.dynamic.DynamicIslandWindow;
+import com.phoenix.gui.ui.hud.Hud;
+import com.phoenix.gui.ui.perf.ActivityTracker;
+import com.phoenix.gui.ui.perf.FrameMonitor;
+import com.phoenix.gui.ui.perf.LayerManager;
+import com.phoenix.gui.ui.perf.TextMetricsCache;
 
 // 封装
 
@@ -25,6 +31,9 @@ public class UI {
     private static DynamicIslandWindow dynamicIsland;
     private static ArraylistView arraylistView;
 
+    // hide 之后视图树不销毁，下次 show 直接复用，内存紧张时按优先级释放
+    private static boolean warm = false;
+
     // 容器引用
     private static FrameLayout guiContainer;
     private static FrameLayout floatBallContainer;
@@ -48,6 +57,12 @@ public class UI {
         dynamicColorExtractor = new DynamicColorExtractor(ctx);
         dynamicColorExtractor.init();
 
+        FrameMonitor.updateRefreshRate(ctx);
+        LayerManager.init(ctx);
+
+        // 后台读取上次落盘的文字测量结果，读完之前直接测量
+        TextMetricsCache.load(ctx);
+
         initialized = true;
     }
 
@@ -57,6 +72,10 @@ public class UI {
         }
 
         try {
+            // 缓存的视图属于旧 Activity 时不能复用
+            if (warm && activity != currentActivity) {
+                releaseWarmCache();
+            }
             currentActivity = activity;
 
             // 绑定容器
@@ -71,6 +90,7 @@ public class UI {
             initFloatBall();
             initDynamicIsland();
             initArraylist();
+            applyHudMode();
 
             // 注册
             if (activity instanceof ModuleToggleListener) {
@@ -80,7 +100,9 @@ public class UI {
                 ModuleManager.addShortcutListener((ShortcutToggleListener) activity);
             }
 
+            warm = false;
             isShowing = true;
+            ActivityTracker.setOverlayVisible(true);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -101,37 +123,35 @@ public class UI {
                 ModuleManager.removeShortcutListener((ShortcutToggleListener) currentActivity);
             }
 
-            // 清理
+            Hud.detach();
+
+            // 只收起，视图留在容器里等下次 show
             if (arraylistView != null) {
                 arraylistView.clearModules();
                 arraylistView.hide();
-                arraylistView = null;
             }
 
-            // 清理
             if (dynamicIsland != null) {
-                dynamicIsland.hide();
-                dynamicIsland = null;
+                dynamicIsland.suspend();
             }
 
-            // 还是清理
             if (floatBall != null) {
                 floatBall.hide();
-                floatBall.destroy();
-                floatBall = null;
             }
 
-            // 清空垃圾桶
-            if (floatBallContainer != null) floatBallContainer.removeAllViews();
-            if (menusContainer != null) menusContainer.removeAllViews();
-            if (arraylistContainer != null) arraylistContainer.removeAllViews();
-
             // 隐藏
             if (guiContainer != null) {
                 guiContainer.setVisibility(View.GONE);
             }
 
+            // 测量缓存落盘，下次冷启动直接用
+            if (currentActivity != null) {
+                TextMetricsCache.save(currentActivity);
+            }
+
+            warm = true;
             isShowing = false;
+            ActivityTracker.setOverlayVisible(false);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -149,8 +169,8 @@ public class UI {
     private static void initFloatBall() {
         try {
             if (floatBall != null) {
-                floatBall.destroy();
-                floatBall = null;
+                floatBall.show();
+                return;
             }
 
             if (floatBallContainer != null) {
@@ -167,12 +187,16 @@ public class UI {
 
     private static void initDynamicIsland() {
         boolean enabled = ConfigManager.getDynamicIslandEnabled();
-        if (!enabled) return;
+        if (!enabled) {
+            // 隐藏期间被关掉了，缓存也没用了
+            releaseDynamicIsland();
+            return;
+        }
 
         try {
             if (dynamicIsland != null) {
-                dynamicIsland.hide();
-                dynamicIsland = null;
+                dynamicIsland.show();
+                return;
             }
 
             if (dynamicIslandContainer != null) {
@@ -189,8 +213,9 @@ public class UI {
     private static void initArraylist() {
         try {
             if (arraylistView != null) {
-                arraylistView.clearModules();
-                arraylistView = null;
+                addDefaultArraylistModules();
+                arraylistView.show();
+                return;
             }
 
             if (arraylistContainer != null) {
@@ -210,6 +235,28 @@ public class UI {
     }
 
 
+    // HUD 模式下列表和灵动岛只当数据源，由渲染线程画到 SurfaceView 上
+    private static void applyHudMode() {
+        if (ConfigManager.getHudModeEnabled()) {
+            Hud.attach(guiContainer, arraylistView, dynamicIsland);
+            if (arraylistContainer != null) arraylistContainer.setVisibility(View.GONE);
+            if (dynamicIslandContainer != null) dynamicIslandContainer.setVisibility(View.GONE);
+        } else {
+            Hud.detach();
+            if (arraylistContainer != null) arraylistContainer.setVisibility(View.VISIBLE);
+            if (dynamicIslandContainer != null && dynamicIsland != null && dynamicIsland.isShowing()) {
+                dynamicIslandContainer.setVisibility(View.VISIBLE);
+            }
+        }
+    }
+
+    public static void setHudMode(boolean enabled) {
+        ConfigManager.setHudModeEnabled(enabled);
+        if (isShowing) {
+            applyHudMode();
+        }
+    }
+
     private static void addDefaultArraylistModules() {
         if (arraylistView == null) return;
 
@@ -219,8 +266,91 @@ public class UI {
     }
     
 
+    // 按 ComponentCallbacks2 的级别从便宜到贵依次释放：
+    // 灵动岛和列表 -> 悬浮球和所有菜单 -> 文字测量缓存
+    public static void onTrimMemory(int level) {
+        int tier = getTrimTier(level);
+        if (tier == 0) return;
+
+        try {
+            // 正在显示的视图不动，只释放隐藏后留下的
+            if (!isShowing) {
+                releaseDynamicIsland();
+                releaseArraylist();
+                if (tier >= 2) {
+                    releaseFloatBall();
+                    warm = false;
+                }
+            }
+
+            if (tier >= 3) {
+                if (currentActivity != null) {
+                    TextMetricsCache.save(currentActivity);
+                }
+                TextMetricsCache.clear();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int getTrimTier(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return 3;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return 2;
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            return 1;
+        }
+        // UI_HIDDEN 只是切到后台，缓存正是为了这时候留着
+        return 0;
+    }
+
+    private static void releaseWarmCache() {
+        releaseDynamicIsland();
+        releaseArraylist();
+        releaseFloatBall();
+        warm = false;
+    }
+
+    private static void releaseDynamicIsland() {
+        if (dynamicIsland != null) {
+            dynamicIsland.hide();
+            dynamicIsland = null;
+        }
+    }
+
+    private static void releaseArraylist() {
+        if (arraylistView != null) {
+            arraylistView.clearModules();
+            if (arraylistView.getParent() != null) {
+                ((ViewGroup) arraylistView.getParent()).removeView(arraylistView);
+            }
+            arraylistView = null;
+        }
+    }
+
+    // 菜单跟着悬浮球一起销毁
+    private static void releaseFloatBall() {
+        if (floatBall != null) {
+            floatBall.destroy();
+            if (floatBall.getParent() != null) {
+                ((ViewGroup) floatBall.getParent()).removeView(floatBall);
+            }
+            floatBall = null;
+        }
+    }
+
     public static void cleanup() {
         hide();
+        releaseWarmCache();
+
+        MenuPrebuilder.shutdown();
 
         if (dynamicColorExtractor != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
             dynamicColorExtractor.stopListening();
@@ -236,13 +366,14 @@ public class UI {
     }
 
 
+    // 隐藏期间缓存里的实例不对外暴露
     public static DynamicIslandWindow getDynamicIsland() {
-        return dynamicIsland;
+        return isShowing ? dynamicIsland : null;
     }
 
 
     public static ArraylistView getArraylistView() {
-        return arraylistView;
+        return isShowing ? arraylistView : null;
     }
 
 
@@ -1,60 +1,58 @@
 package com.phoenix.gui.ui.dynamic;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import androidx.annotation.NonNull;
 
-public abstract class AnimatedTaskItemView extends TaskItemView {
+// 通过 TaskItem 的变化回调驱动刷新，任务静止时没有任何定时器
+public abstract class AnimatedTaskItemView extends TaskItemView implements DynamicIslandManager.TaskItem.OnChangeListener {
 
-    private final Handler updateHandler = new Handler(Looper.getMainLooper());
-    private final Runnable updateRunnable = new Runnable() {
-        @Override
-        public void run() {
-            updateContent();
-            updateHandler.postDelayed(this, 16);
-        }
-    };
-
-    private boolean isUpdating = false;
+    private DynamicIslandManager.TaskItem boundTask;
 
     public AnimatedTaskItemView(@NonNull Context context, DynamicIslandManager.TaskItem task, float scale) {
         super(context, task, scale);
     }
 
-    protected void startUpdating() {
-        if (!isUpdating) {
-            isUpdating = true;
-            updateHandler.post(updateRunnable);
+    @Override
+    public void bindTask(DynamicIslandManager.TaskItem newTask) {
+        if (isAttachedToWindow() && boundTask != newTask) {
+            unbind();
+            this.task = newTask;
+            bind();
+        }
+        super.bindTask(newTask);
+    }
+
+    @Override
+    public void onTaskChanged(DynamicIslandManager.TaskItem changedTask) {
+        if (changedTask == task) {
+            updateContent();
+        }
+    }
+
+    private void bind() {
+        if (task != null) {
+            task.addChangeListener(this);
+            boundTask = task;
         }
     }
 
-    protected void stopUpdating() {
-        if (isUpdating) {
-            isUpdating = false;
-            updateHandler.removeCallbacks(updateRunnable);
+    private void unbind() {
+        if (boundTask != null) {
+            boundTask.removeChangeListener(this);
+            boundTask = null;
         }
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
-        startUpdating();
+        bind();
+        updateContent();
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        stopUpdating();
-    }
-
-    @Override
-    protected void onVisibilityChanged(android.view.View changedView, int visibility) {
-        super.onVisibilityChanged(changedView, visibility);
-        if (visibility == VISIBLE) {
-            startUpdating();
-        } else {
-            stopUpdating();
-        }
+        unbind();
     }
 }
@@ -1,35 +1,86 @@
 package com.phoenix.gui.ui.dynamic;
 
-import android.animation.ValueAnimator; 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
 import android.graphics.Typeface;
-import android.view.Gravity;
-import android.view.ViewGroup;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.view.View;
 import android.view.animation.OvershootInterpolator;
-import android.widget.FrameLayout;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
-import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
+import com.phoenix.gui.ui.NumberFormatter;
 import com.phoenix.gui.ui.ThemeManager;
 
-public class CollapsedContentView extends LinearLayout implements ThemeManager.OnThemeColorChangeListener {
+// 收起状态的灵动岛内容，整行由一个 View 自己绘制
+// 数字按等宽格子绘制，FPS 变化只需要 invalidate，不触发 measure/layout
+public class CollapsedContentView extends View implements ThemeManager.OnThemeColorChangeListener {
 
-    private ImageView brandIcon;
-    private TextView brandText;
+    public static final int METRIC_FPS = 0;
+    public static final int METRIC_WORST_FRAME = 1;
 
-    private ImageView userIcon;
-    private TextView userText;
+    private static final String BRAND_TEXT = "Phoen1xGUI";
+    private static final String SEPARATOR_TEXT = " • ";
+    private static final int MAX_METRIC_CHARS = 8;
+    // 超出位数的数值封顶，保证写得进缓冲
+    private static final int MAX_METRIC_VALUE = 99999;
+    private static final char[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+    private static final int NUMBER_OUT_DURATION_MS = 150;
+    private static final int NUMBER_IN_DURATION_MS = 400;
 
-    private ImageView fpsIcon;
-    private TextView fpsNumberText;
-    private TextView fpsLabelText;
-    private FrameLayout fpsNumberContainer;
+    private Drawable brandIcon;
+    private Drawable userIcon;
+    private Drawable fpsIcon;
+
+    private final TextPaint brandPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint separatorPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+
+    private String userText = "Test";
+    private String labelText = " FPS";
 
     private DynamicIslandManager manager;
     private float scale = 0.7f;
-    private int currentFps = 0;
+    private int metricMode = METRIC_FPS;
+
+    // 预先计算好的各段位置，相对内容起点
+    private int iconSize;
+    private float spacerWidth;
+    private float paddingH;
+    private float brandTextX;
+    private float firstSeparatorX;
+    private float userIconX;
+    private float userTextX;
+    private float secondSeparatorX;
+    private float fpsIconX;
+    private float numberX;
+    private float fixedWidth;
+    private float baselineOffset;
+
+    private final float[] digitWidths = new float[10];
+    private float digitAdvance;
+    private float dotAdvance;
+    private int reservedChars = 3;
+
+    private final char[] metricChars = new char[MAX_METRIC_CHARS];
+    private int metricLength = 1;
+    private final char[] previousChars = new char[MAX_METRIC_CHARS];
+    private int previousLength = 0;
+    private final char[] scratchChars = new char[MAX_METRIC_CHARS];
+
+    private ValueAnimator numberAnimator;
+    private final FastOutSlowInInterpolator outInterpolator = new FastOutSlowInInterpolator();
+    private final OvershootInterpolator inInterpolator = new OvershootInterpolator(2.5f);
+    private boolean numberPhaseIn = true;
+    private float numberFraction = 1f;
+    private float fieldWidthFrom;
+    private float fieldWidthTo;
 
     public CollapsedContentView(@NonNull Context context) {
         super(context);
@@ -37,145 +88,212 @@ public class CollapsedContentView extends LinearLayout implements ThemeManager.O
     }
 
     private void init(Context context) {
-        setOrientation(HORIZONTAL);
-        setGravity(Gravity.CENTER);
-        setPadding(
-            (int) dpToPx(12 * scale), 0,
-            (int) dpToPx(12 * scale), 0
-        );
+        metricChars[0] = '0';
+
+        brandIcon = loadIcon(context, context.getResources().getIdentifier("icon", "drawable", context.getPackageName()),
+                android.R.drawable.ic_menu_info_details);
+        userIcon = loadIcon(context, 0, android.R.drawable.ic_menu_myplaces);
+        fpsIcon = loadIcon(context, 0, android.R.drawable.ic_menu_manage);
+
+        brandPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        textPaint.setTypeface(Typeface.DEFAULT);
+        separatorPaint.setTypeface(Typeface.DEFAULT);
+
+        applyColors(ThemeManager.getThemeColor());
+
+        numberAnimator = ValueAnimator.ofFloat(0f, 1f);
+        numberAnimator.addUpdateListener(animation -> {
+            numberFraction = animation.getAnimatedFraction();
+            invalidate();
+        });
+        numberAnimator.addListener(new AnimatorListenerAdapter() {
+            private boolean cancelled = false;
+
+            @Override
+            public void onAnimationStart(Animator animation) {
+                cancelled = false;
+            }
 
-        createBrandModule(context);
-        addSeparator(context);
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                cancelled = true;
+            }
 
-        createUserModule(context);
-        addSeparator(context);
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (cancelled || numberPhaseIn) return;
+                startNumberPhase(true);
+            }
+        });
 
-        createFpsModule(context);
+        computeMetrics();
     }
 
-    private void createBrandModule(Context context) {
-        LinearLayout module = new LinearLayout(context);
-        module.setOrientation(HORIZONTAL);
-        module.setGravity(Gravity.CENTER_VERTICAL);
-
-        brandIcon = new ImageView(context);
+    private Drawable loadIcon(Context context, int preferredId, int fallbackId) {
+        Drawable drawable = null;
         try {
-            int iconId = context.getResources().getIdentifier("icon", "drawable", context.getPackageName());
-            if (iconId != 0) {
-                brandIcon.setImageResource(iconId);
-            } else {
-                brandIcon.setImageResource(android.R.drawable.ic_menu_info_details);
+            if (preferredId != 0) {
+                drawable = context.getResources().getDrawable(preferredId, null);
             }
         } catch (Exception e) {
-            brandIcon.setImageResource(android.R.drawable.ic_menu_info_details);
+            drawable = null;
         }
-        // 获取颜色。
-        brandIcon.setColorFilter(ThemeManager.getThemeColor());
-        int iconSize = (int) dpToPx(16 * scale);
-        module.addView(brandIcon, new LayoutParams(iconSize, iconSize));
-
-        module.addView(createSpacer(context, 4 * scale), new LayoutParams(
-            (int) dpToPx(4 * scale), 0
-        ));
-
-        brandText = createStyledText(context, "Phoen1xGUI", ThemeManager.getThemeColor(), true); // 神必小小小opai
-        module.addView(brandText);
-
-        addView(module);
+        if (drawable == null) {
+            drawable = context.getResources().getDrawable(fallbackId, null);
+        }
+        return drawable.mutate();
     }
 
-    private void createUserModule(Context context) {
-        LinearLayout module = new LinearLayout(context);
-        module.setOrientation(HORIZONTAL);
-        module.setGravity(Gravity.CENTER_VERTICAL);
-
-        userIcon = new ImageView(context);
-        userIcon.setImageResource(android.R.drawable.ic_menu_myplaces);
-        userIcon.setColorFilter(com.phoenix.gui.ui.ThemeManager.getTextSecondary());
-        int iconSize = (int) dpToPx(16 * scale);
-        module.addView(userIcon, new LayoutParams(iconSize, iconSize));
-
-        module.addView(createSpacer(context, 4 * scale), new LayoutParams(
-            (int) dpToPx(4 * scale), 0
-        ));
-
-        userText = createStyledText(context, "Test", com.phoenix.gui.ui.ThemeManager.getTextSecondary(), false); // 用户。
-        module.addView(userText);
+    private void applyColors(int themeColor) {
+        int secondary = ThemeManager.getTextSecondary();
+        // 获取颜色。
+        brandIcon.setColorFilter(new PorterDuffColorFilter(themeColor, PorterDuff.Mode.SRC_ATOP));
+        userIcon.setColorFilter(new PorterDuffColorFilter(secondary, PorterDuff.Mode.SRC_ATOP));
+        fpsIcon.setColorFilter(new PorterDuffColorFilter(secondary, PorterDuff.Mode.SRC_ATOP));
+        brandPaint.setColor(themeColor);
+        textPaint.setColor(secondary);
+        separatorPaint.setColor((secondary & 0x00FFFFFF) | 0x66000000);
+    }
 
-        addView(module);
+    private void computeMetrics() {
+        float textSize = spToPx(13 * scale);
+        brandPaint.setTextSize(textSize);
+        textPaint.setTextSize(textSize);
+        separatorPaint.setTextSize(textSize);
+
+        iconSize = (int) dpToPx(16 * scale);
+        spacerWidth = (int) dpToPx(4 * scale);
+        paddingH = (int) dpToPx(12 * scale);
+
+        // 等宽数字：所有数字都按最宽的数字占位
+        digitAdvance = 0f;
+        for (int i = 0; i < 10; i++) {
+            digitWidths[i] = textPaint.measureText(DIGITS, i, 1);
+            digitAdvance = Math.max(digitAdvance, digitWidths[i]);
+        }
+        dotAdvance = textPaint.measureText(".");
+
+        float separatorWidth = separatorPaint.measureText(SEPARATOR_TEXT);
+        float x = 0f;
+        brandTextX = x + iconSize + spacerWidth;
+        x = brandTextX + brandPaint.measureText(BRAND_TEXT);
+        firstSeparatorX = x;
+        x += separatorWidth;
+        userIconX = x;
+        userTextX = x + iconSize + spacerWidth;
+        x = userTextX + textPaint.measureText(userText);
+        secondSeparatorX = x;
+        x += separatorWidth;
+        fpsIconX = x;
+        numberX = x + iconSize + spacerWidth;
+        fixedWidth = numberX + textPaint.measureText(labelText);
+
+        Paint.FontMetrics fm = textPaint.getFontMetrics();
+        baselineOffset = -(fm.ascent + fm.descent) / 2f;
+
+        fieldWidthFrom = fieldWidthTo = measureChars(metricChars, metricLength);
     }
 
-    private void createFpsModule(Context context) {
-        LinearLayout module = new LinearLayout(context);
-        module.setOrientation(HORIZONTAL);
-        module.setGravity(Gravity.CENTER_VERTICAL);
-
-        fpsIcon = new ImageView(context);
-        fpsIcon.setImageResource(android.R.drawable.ic_menu_manage);
-        fpsIcon.setColorFilter(com.phoenix.gui.ui.ThemeManager.getTextSecondary());
-        int iconSize = (int) dpToPx(16 * scale);
-        module.addView(fpsIcon, new LayoutParams(iconSize, iconSize));
-
-        module.addView(createSpacer(context, 4 * scale), new LayoutParams(
-            (int) dpToPx(4 * scale), 0
-        ));
-
-        fpsNumberContainer = new FrameLayout(context);
-        fpsNumberContainer.setClipChildren(false);
-        fpsNumberContainer.setClipToPadding(false);
-        module.addView(fpsNumberContainer, new LayoutParams(
-            LayoutParams.WRAP_CONTENT,
-            LayoutParams.WRAP_CONTENT
-        ));
-
-        fpsNumberText = createStyledText(context, "0", com.phoenix.gui.ui.ThemeManager.getTextSecondary(), false);
-        fpsNumberContainer.addView(fpsNumberText, new FrameLayout.LayoutParams(
-            FrameLayout.LayoutParams.WRAP_CONTENT,
-            FrameLayout.LayoutParams.WRAP_CONTENT
-        ));
-
-        fpsLabelText = createStyledText(context, " FPS", com.phoenix.gui.ui.ThemeManager.getTextSecondary(), false);
-        module.addView(fpsLabelText);
-
-        addView(module);
+    private float measureChars(char[] chars, int length) {
+        float width = 0f;
+        for (int i = 0; i < length; i++) {
+            width += chars[i] == '.' ? dotAdvance : digitAdvance;
+        }
+        return width;
     }
 
-    private TextView createStyledText(Context context, String text, int color, boolean bold) {
-        TextView textView = new TextView(context);
-        textView.setText(text);
-        textView.setTextColor(color);
-        textView.setTextSize(13 * scale);
-        textView.setTypeface(null, bold ? Typeface.BOLD : Typeface.NORMAL);
-        textView.setSingleLine(true);
-        textView.setIncludeFontPadding(false);
-        return textView;
+    private float reservedFieldWidth() {
+        float width = reservedChars * digitAdvance;
+        if (metricMode == METRIC_WORST_FRAME) width += dotAdvance;
+        return width;
     }
 
-    private TextView createSeparator(Context context) {
-        TextView separator = new TextView(context);
-        separator.setText(" • ");
-
-        int separatorColor = (com.phoenix.gui.ui.ThemeManager.getTextSecondary() & 0x00FFFFFF) | 0x66000000;
-        separator.setTextColor(separatorColor);
-        separator.setTextSize(13 * scale);
-        separator.setIncludeFontPadding(false);
-        LayoutParams params = new LayoutParams(
-            LayoutParams.WRAP_CONTENT,
-            LayoutParams.WRAP_CONTENT
-        );
-        params.setMargins(
-            (int) dpToPx(4 * scale), 0,
-            (int) dpToPx(4 * scale), 0
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int desiredWidth = (int) Math.ceil(paddingH * 2 + fixedWidth + reservedFieldWidth());
+        Paint.FontMetrics fm = textPaint.getFontMetrics();
+        int desiredHeight = (int) Math.ceil(Math.max(iconSize, fm.descent - fm.ascent));
+        setMeasuredDimension(
+                resolveSize(desiredWidth, widthMeasureSpec),
+                resolveSize(desiredHeight, heightMeasureSpec)
         );
-        return separator;
     }
 
-    private void addSeparator(Context context) {
-        addView(createSeparator(context));
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        float fieldWidth = fieldWidthFrom + (fieldWidthTo - fieldWidthFrom) * (numberPhaseIn ? numberFraction : 0f);
+        float contentWidth = fixedWidth + fieldWidth;
+        float startX = (getWidth() - contentWidth) / 2f;
+        float centerY = getHeight() / 2f;
+        float baseline = centerY + baselineOffset;
+        int iconTop = (int) (centerY - iconSize / 2f);
+
+        drawIcon(canvas, brandIcon, startX, iconTop);
+        canvas.drawText(BRAND_TEXT, startX + brandTextX, baseline, brandPaint);
+        canvas.drawText(SEPARATOR_TEXT, startX + firstSeparatorX, baseline, separatorPaint);
+
+        drawIcon(canvas, userIcon, startX + userIconX, iconTop);
+        canvas.drawText(userText, startX + userTextX, baseline, textPaint);
+        canvas.drawText(SEPARATOR_TEXT, startX + secondSeparatorX, baseline, separatorPaint);
+
+        drawIcon(canvas, fpsIcon, startX + fpsIconX, iconTop);
+        drawNumber(canvas, startX + numberX, baseline);
+        canvas.drawText(labelText, startX + numberX + fieldWidth, baseline, textPaint);
     }
 
-    private android.view.View createSpacer(Context context, float widthDp) {
-        return new android.view.View(context);
+    private void drawIcon(Canvas canvas, Drawable icon, float left, int top) {
+        int l = (int) left;
+        icon.setBounds(l, top, l + iconSize, top + iconSize);
+        icon.draw(canvas);
+    }
+
+    private void drawNumber(Canvas canvas, float x, float baseline) {
+        char[] chars;
+        int length;
+        float translationY;
+        float alpha;
+        float numberScale;
+        float shift = dpToPx(20 * scale);
+
+        if (numberPhaseIn) {
+            chars = metricChars;
+            length = metricLength;
+            translationY = shift * (1f - numberFraction);
+            alpha = Math.min(1f, numberFraction);
+            numberScale = 1.2f - 0.2f * numberFraction;
+        } else {
+            chars = previousChars;
+            length = previousLength;
+            translationY = -shift * numberFraction;
+            alpha = 1f - numberFraction;
+            numberScale = 1f - 0.2f * numberFraction;
+        }
+        if (alpha <= 0f || length == 0) return;
+
+        float width = measureChars(chars, length);
+        int savedAlpha = textPaint.getAlpha();
+        textPaint.setAlpha((int) (savedAlpha * Math.max(0f, alpha)));
+
+        canvas.save();
+        canvas.translate(0f, translationY);
+        canvas.scale(numberScale, numberScale, x + width / 2f, baseline - baselineOffset);
+        float cellX = x;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '.') {
+                canvas.drawText(chars, i, 1, cellX, baseline, textPaint);
+                cellX += dotAdvance;
+            } else {
+                float glyphWidth = c >= '0' && c <= '9' ? digitWidths[c - '0'] : digitAdvance;
+                canvas.drawText(chars, i, 1, cellX + (digitAdvance - glyphWidth) / 2f, baseline, textPaint);
+                cellX += digitAdvance;
+            }
+        }
+        canvas.restore();
+
+        textPaint.setAlpha(savedAlpha);
     }
 
     public void setManager(DynamicIslandManager manager) {
@@ -186,106 +304,108 @@ public class CollapsedContentView extends LinearLayout implements ThemeManager.O
     public void updateContent() {
         if (manager == null) return;
 
-        userText.setText(manager.getPersistentText());
+        setUserText(manager.getPersistentText());
     }
 
-    public void updateFps(int fps) {
-        if (currentFps == fps) return;
-
-        final String newFpsText = String.valueOf(fps);
-        currentFps = fps;
-
-        fpsNumberText.animate()
-            .translationY(-dpToPx(20 * scale))
-            .alpha(0f)
-            .scaleX(0.8f)
-            .scaleY(0.8f)
-            .setDuration(150)
-            .setInterpolator(new androidx.interpolator.view.animation.FastOutSlowInInterpolator())
-            .withEndAction(() -> {
-                final int startWidth = fpsNumberContainer.getWidth();
-
-                Paint textPaint = fpsNumberText.getPaint();
-                final int endWidth = (int) Math.ceil(textPaint.measureText(newFpsText));
-
-                fpsNumberText.setText(newFpsText);
-
-                fpsNumberText.setTranslationY(dpToPx(20 * scale));
-                fpsNumberText.setAlpha(0f);
-                fpsNumberText.setScaleX(1.2f);
-                fpsNumberText.setScaleY(1.2f);
-
-                fpsNumberText.animate()
-                    .translationY(0f)
-                    .alpha(1f)
-                    .scaleX(1f)
-                    .scaleY(1f)
-                    .setDuration(400)
-                    .setInterpolator(new OvershootInterpolator(2.5f))
-                    .start();
-                
-                if (startWidth != endWidth) {
-                    ValueAnimator widthAnimator = ValueAnimator.ofInt(startWidth, endWidth);
-                    widthAnimator.setDuration(400);
-                    widthAnimator.setInterpolator(new OvershootInterpolator(2.5f));
-                    widthAnimator.addUpdateListener(animation -> {
-                        int animatedWidth = (Integer) animation.getAnimatedValue();
-                        ViewGroup.LayoutParams params = fpsNumberContainer.getLayoutParams();
-                        params.width = animatedWidth;
-                        fpsNumberContainer.setLayoutParams(params);
-                    });
-                    widthAnimator.start();
-                }
-            })
-            .start();
+    private void setUserText(String text) {
+        if (text == null) text = "";
+        if (text.equals(userText)) return;
+        userText = text;
+        computeMetrics();
+        requestLayout();
+        invalidate();
     }
 
-    public void updateConfig(float scale, String text) {
-        this.scale = scale;
-        userText.setText(text);
-
-        float textSize = 13 * scale;
-        brandText.setTextSize(textSize);
-        userText.setTextSize(textSize);
-        fpsNumberText.setTextSize(textSize);
-        fpsLabelText.setTextSize(textSize);
-
-        int iconSize = (int) dpToPx(16 * scale);
-        updateIconSize(brandIcon, iconSize);
-        updateIconSize(userIcon, iconSize);
-        updateIconSize(fpsIcon, iconSize);
-
-        setPadding(
-            (int) dpToPx(12 * scale), 0,
-            (int) dpToPx(12 * scale), 0
-        );
-
+    public void setMetricMode(int mode) {
+        if (metricMode == mode) return;
+        metricMode = mode;
+        labelText = mode == METRIC_WORST_FRAME ? " ms" : " FPS";
+        reservedChars = 3;
+        computeMetrics();
         requestLayout();
+        invalidate();
+    }
+
+    public int getMetricMode() {
+        return metricMode;
+    }
+
+    // 界面空闲时帧统计挂起，数字换成 -- 表示不再更新
+    public void showIdle() {
+        scratchChars[0] = '-';
+        scratchChars[1] = '-';
+        setMetricChars(2);
+    }
+
+    public void updateFrameStats(int fps, float worstFrameMs) {
+        int length;
+        if (metricMode == METRIC_WORST_FRAME) {
+            length = NumberFormatter.formatFixed(scratchChars, 0,
+                    Math.max(0f, Math.min(worstFrameMs, MAX_METRIC_VALUE)), 1);
+        } else {
+            length = NumberFormatter.formatInt(scratchChars, 0, Math.max(0, Math.min(fps, MAX_METRIC_VALUE)));
+        }
+        setMetricChars(length);
+    }
+
+    private void setMetricChars(int length) {
+        if (length == metricLength && regionEquals(scratchChars, metricChars, length)) return;
+
+        System.arraycopy(metricChars, 0, previousChars, 0, metricLength);
+        previousLength = metricLength;
+        System.arraycopy(scratchChars, 0, metricChars, 0, length);
+        metricLength = length;
+
+        int digits = metricMode == METRIC_WORST_FRAME ? length - 1 : length;
+        if (digits > reservedChars) {
+            // 位数超出预留宽度时才重新布局
+            reservedChars = digits;
+            requestLayout();
+        }
+
+        fieldWidthFrom = measureChars(previousChars, previousLength);
+        fieldWidthTo = measureChars(metricChars, metricLength);
+        startNumberPhase(false);
+    }
+
+    private void startNumberPhase(boolean phaseIn) {
+        numberAnimator.cancel();
+        numberPhaseIn = phaseIn;
+        numberFraction = 0f;
+        numberAnimator.setDuration(phaseIn ? NUMBER_IN_DURATION_MS : NUMBER_OUT_DURATION_MS);
+        numberAnimator.setInterpolator(phaseIn ? inInterpolator : outInterpolator);
+        numberAnimator.start();
     }
 
-    private void updateIconSize(ImageView icon, int size) {
-        if (icon != null) {
-            LayoutParams params = (LayoutParams) icon.getLayoutParams();
-            params.width = size;
-            params.height = size;
-            icon.setLayoutParams(params);
+    private static boolean regionEquals(char[] a, char[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) return false;
         }
+        return true;
+    }
+
+    public void updateConfig(float scale, String text) {
+        this.scale = scale;
+        userText = text != null ? text : "";
+        computeMetrics();
+        requestLayout();
+        invalidate();
     }
 
     private float dpToPx(float dp) {
         return dp * getResources().getDisplayMetrics().density;
     }
 
+    private float spToPx(float sp) {
+        return sp * getResources().getDisplayMetrics().scaledDensity;
+    }
+
     @Override
     public void onThemeColorChanged(int newColor) {
-        if (brandIcon != null) {
-            brandIcon.setColorFilter(newColor);
-        }
-        if (brandText != null) {
-            brandText.setTextColor(newColor);
-        }
+        applyColors(newColor);
+        invalidate();
     }
-    
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
@@ -296,6 +416,7 @@ public class CollapsedContentView extends LinearLayout implements ThemeManager.O
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        numberAnimator.cancel();
         ThemeManager.removeListener(this);
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,11 @@ package com.phoenix.gui.ui.dynamic;
 import android.graphics.drawable.Drawable;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.phoenix.gui.ui.NumberFormatter;
+import com.phoenix.gui.ui.perf.ActivityTracker;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -14,9 +17,20 @@ public class DynamicIslandManager {
     public static final long SWITCH_DISPLAY_DURATION_MS = 500L;
     public static final long TIME_PROGRESS_GRACE_PERIOD_MS = 1000L;
 
+    // 短时间内连续的开关事件合并成一条汇总，避免灵动岛每个事件都重新变形
+    public static final String SWITCH_BURST_ID = "switch_burst";
+    public static final long SWITCH_BURST_WINDOW_MS = 120L;
+    public static final long SWITCH_BURST_MAX_DELAY_MS = 400L;
+    public static final long SWITCH_BURST_DISPLAY_DURATION_MS = 1500L;
+    public static final int SWITCH_BURST_MIN_COUNT = 3;
+
     public static class TaskItem {
         public enum Type { SWITCH, PROGRESS }
 
+        public interface OnChangeListener {
+            void onTaskChanged(TaskItem task);
+        }
+
         public final Type type;
         public final String identifier;
         public String text;
@@ -31,10 +45,26 @@ public class DynamicIslandManager {
         public float displayProgress;
         public float targetProgress;
         public boolean isVisuallyHidden;
+        public final Map<String, Boolean> details = new LinkedHashMap<>();
+        public boolean detailsExpanded;
+
+        // 每个可见字段一个版本号，绑定的视图只刷新版本变化的部分
+        public int textVersion;
+        public int subtitleVersion;
+        public int iconVersion;
+        public int stateVersion;
+        public int progressVersion;
+        private final List<OnChangeListener> changeListeners = new ArrayList<>(1);
 
         private Runnable hideRunnable;
         private Runnable progressRunnable;
 
+        // 宽度缓存，仅在标题、副标题或缩放变化时失效
+        private String measuredText;
+        private String measuredSubtitle;
+        private float measuredScale;
+        private int measuredWidth = -1;
+
         public TaskItem(Type type, String identifier, String text, @Nullable String subtitle) {
             this.type = type;
             this.identifier = identifier;
@@ -52,6 +82,70 @@ public class DynamicIslandManager {
             this.isVisuallyHidden = false;
         }
 
+        public void addChangeListener(OnChangeListener listener) {
+            if (!changeListeners.contains(listener)) changeListeners.add(listener);
+        }
+
+        public void removeChangeListener(OnChangeListener listener) {
+            changeListeners.remove(listener);
+        }
+
+        private void dispatchChange() {
+            for (int i = 0; i < changeListeners.size(); i++) {
+                changeListeners.get(i).onTaskChanged(this);
+            }
+        }
+
+        public void setText(String text) {
+            if (Objects.equals(this.text, text)) return;
+            this.text = text;
+            textVersion++;
+            dispatchChange();
+        }
+
+        public void setSubtitle(@Nullable String subtitle) {
+            if (Objects.equals(this.subtitle, subtitle)) return;
+            this.subtitle = subtitle;
+            subtitleVersion++;
+            dispatchChange();
+        }
+
+        public void setIcon(@Nullable Drawable icon) {
+            if (this.icon == icon) return;
+            this.icon = icon;
+            iconVersion++;
+            dispatchChange();
+        }
+
+        public void setSwitchState(boolean switchState) {
+            if (this.switchState == switchState) return;
+            this.switchState = switchState;
+            stateVersion++;
+            dispatchChange();
+        }
+
+        public void setDisplayProgress(float displayProgress) {
+            if (this.displayProgress == displayProgress) return;
+            this.displayProgress = displayProgress;
+            progressVersion++;
+            dispatchChange();
+        }
+
+        public int getCachedWidth(float scale) {
+            if (measuredWidth >= 0 && measuredScale == scale
+                    && Objects.equals(measuredText, text) && Objects.equals(measuredSubtitle, subtitle)) {
+                return measuredWidth;
+            }
+            return -1;
+        }
+
+        public void setCachedWidth(float scale, int width) {
+            measuredText = text;
+            measuredSubtitle = subtitle;
+            measuredScale = scale;
+            measuredWidth = width;
+        }
+
         public void cancelJobs(Handler handler) {
             if (hideRunnable != null) {
                 handler.removeCallbacks(hideRunnable);
@@ -64,6 +158,11 @@ public class DynamicIslandManager {
         }
     }
 
+    private static class PendingSwitch {
+        String text;
+        boolean state;
+    }
+
     public interface StateChangeListener {
         void onTasksChanged();
         void onExpandedStateChanged(boolean isExpanded);
@@ -77,18 +176,57 @@ public class DynamicIslandManager {
     private final Handler handler = new Handler(Looper.getMainLooper());
     private int currentFps = 0;
 
-    private final Runnable updateRunnable = new Runnable() {
-        @Override
-        public void run() {
-            updateTasks();
-            handler.postDelayed(this, 250);
-        }
-    };
+    private final Map<String, PendingSwitch> pendingSwitches = new LinkedHashMap<>();
+    private long burstStartTime;
+    // 窗口里第一个开关已经直接显示了，窗口内再有开关才考虑把它一起并进汇总
+    private boolean burstWindowOpen = false;
+    private String leadingSwitchId;
+    private final PendingSwitch leadingSwitch = new PendingSwitch();
+    private final Runnable flushSwitchBurstRunnable = this::flushSwitchBurst;
+    // 汇总副标题先拼进复用缓冲，内容真的变了才生成新的字符串
+    private final NumberFormatter.Label burstSubtitle = new NumberFormatter.Label(64);
+
+    private final Runnable expiryRunnable = this::updateTasks;
 
     public DynamicIslandManager(float initialScale, String initialText) {
         this.scale = Math.max(0.5f, Math.min(2.0f, initialScale));
         this.persistentText = initialText;
-        handler.post(updateRunnable);
+    }
+
+    // 不再轮询：任务列表每次变化后只按最早到期的那个任务挂一个定时器，没有会到期的任务就不唤醒
+    // 计时走进度动画的时间轴还没结束的任务由动画结束时的通知重新安排
+    private void scheduleExpiry() {
+        handler.removeCallbacks(expiryRunnable);
+        long earliest = Long.MAX_VALUE;
+        for (TaskItem task : tasks) {
+            if (task.removing) continue;
+            long deadline;
+            if (task.isTimeBased) {
+                if (task.isAwaitingData) {
+                    deadline = task.lastUpdateTime + TIME_PROGRESS_GRACE_PERIOD_MS;
+                } else if (task.displayProgress <= 0.01f && task.progressRunnable == null) {
+                    // 进度已经走完，马上进入等待期
+                    deadline = 0L;
+                } else {
+                    continue;
+                }
+            } else if (task.type == TaskItem.Type.PROGRESS) {
+                deadline = task.lastUpdateTime + VALUE_PROGRESS_TIMEOUT_MS;
+            } else {
+                continue;
+            }
+            earliest = Math.min(earliest, deadline);
+        }
+        if (earliest == Long.MAX_VALUE) return;
+
+        // 超时判断是严格大于，多等 1ms
+        long delay = Math.max(0L, earliest - System.currentTimeMillis() + 1L);
+        handler.postDelayed(expiryRunnable, delay);
+    }
+
+    // 新任务出现时唤醒界面
+    private void onTaskAdded() {
+        ActivityTracker.onInteraction();
     }
 
     public float getScale() { return scale; }
@@ -134,6 +272,102 @@ public class DynamicIslandManager {
     public void addSwitch(String identifier, String text, boolean state) {
         android.util.Log.d("DynamicIsland", String.format("addSwitch: id=%s, text=%s, state=%s", identifier, text, state));
 
+        PendingSwitch pending = pendingSwitches.remove(identifier);
+        if (pending == null) pending = new PendingSwitch();
+        pending.text = text;
+        pending.state = state;
+        pendingSwitches.put(identifier, pending);
+
+        long now = SystemClock.uptimeMillis();
+
+        // 窗口外的第一个开关立即显示，单独一次切换不用等防抖
+        if (!burstWindowOpen) {
+            burstWindowOpen = true;
+            burstStartTime = now;
+            boolean hasBurst = findActiveBurst() != null;
+            flushSwitches();
+            // 已经在汇总里的不算领头，之后的开关照常并进汇总
+            if (!hasBurst) {
+                leadingSwitchId = identifier;
+                leadingSwitch.text = text;
+                leadingSwitch.state = state;
+            }
+            handler.removeCallbacks(flushSwitchBurstRunnable);
+            handler.postDelayed(flushSwitchBurstRunnable, SWITCH_BURST_WINDOW_MS);
+            return;
+        }
+
+        // 防抖：窗口内后续的开关事件一起处理，但总延迟不超过 SWITCH_BURST_MAX_DELAY_MS
+        long deadline = burstStartTime + SWITCH_BURST_MAX_DELAY_MS;
+        long delay = Math.max(0, Math.min(SWITCH_BURST_WINDOW_MS, deadline - now));
+        handler.removeCallbacks(flushSwitchBurstRunnable);
+        handler.postDelayed(flushSwitchBurstRunnable, delay);
+    }
+
+    public void toggleDetails(String identifier) {
+        int taskIndex = findTaskIndex(identifier);
+        if (taskIndex == -1) return;
+        TaskItem task = tasks.get(taskIndex);
+        if (task.details.isEmpty() || task.removing) return;
+
+        task.detailsExpanded = !task.detailsExpanded;
+        task.setSubtitle(buildBurstSubtitle(task));
+        task.lastUpdateTime = System.currentTimeMillis();
+        task.isAwaitingData = false;
+        startTimeBasedAnimation(task);
+        notifyTasksChanged();
+    }
+
+    // 窗口结束：后来的开关连同已经显示的第一个凑够数量就把第一个那条原地换成汇总；不够就逐个显示
+    private void flushSwitchBurst() {
+        burstWindowOpen = false;
+        String leading = leadingSwitchId;
+        leadingSwitchId = null;
+        if (pendingSwitches.isEmpty()) return;
+
+        if (leading != null && findActiveBurst() == null) {
+            boolean updated = pendingSwitches.containsKey(leading);
+            if (pendingSwitches.size() + (updated ? 0 : 1) >= SWITCH_BURST_MIN_COUNT) {
+                if (!updated) {
+                    Map<String, PendingSwitch> ordered = new LinkedHashMap<>();
+                    ordered.put(leading, leadingSwitch);
+                    ordered.putAll(pendingSwitches);
+                    pendingSwitches.clear();
+                    pendingSwitches.putAll(ordered);
+                }
+                // 领头那条由 applySwitchBurst 原地换成汇总，不单独移除，整个窗口只通知一次
+            }
+        }
+        flushSwitches();
+    }
+
+    private void flushSwitches() {
+        if (pendingSwitches.isEmpty()) return;
+
+        TaskItem burst = findActiveBurst();
+
+        if (burst != null || pendingSwitches.size() >= SWITCH_BURST_MIN_COUNT) {
+            applySwitchBurst(burst);
+        } else {
+            for (Map.Entry<String, PendingSwitch> entry : pendingSwitches.entrySet()) {
+                applySwitch(entry.getKey(), entry.getValue().text, entry.getValue().state);
+            }
+        }
+        pendingSwitches.clear();
+
+        notifyTasksChanged();
+    }
+
+    @Nullable
+    private TaskItem findActiveBurst() {
+        int burstIndex = findTaskIndex(SWITCH_BURST_ID);
+        if (burstIndex != -1 && !tasks.get(burstIndex).removing) {
+            return tasks.get(burstIndex);
+        }
+        return null;
+    }
+
+    private void applySwitch(String identifier, String text, boolean state) {
         String mainTitle = "功能开关";
         String subTitle = text + "|已被" + (state ? "开启" : "关闭");
 
@@ -143,9 +377,9 @@ public class DynamicIslandManager {
         if (taskIndex != -1) {
             task = tasks.get(taskIndex);
             task.cancelJobs(handler);
-            task.text = mainTitle;
-            task.subtitle = subTitle;
-            task.switchState = state;
+            task.setText(mainTitle);
+            task.setSubtitle(subTitle);
+            task.setSwitchState(state);
             task.lastUpdateTime = System.currentTimeMillis();
             task.duration = SWITCH_DISPLAY_DURATION_MS;
             task.removing = false;
@@ -161,10 +395,86 @@ public class DynamicIslandManager {
 
             startTimeBasedAnimation(task);
             tasks.add(0, task);
+            onTaskAdded();
             android.util.Log.d("DynamicIsland", "Created new switch task");
         }
+    }
 
-        notifyTasksChanged();
+    private void applySwitchBurst(@Nullable TaskItem burst) {
+        // 已经单独显示的开关条目并入汇总，新建的汇总占住其中最靠前那条的位置
+        int insertIndex = -1;
+        for (String identifier : pendingSwitches.keySet()) {
+            int index = findTaskIndex(identifier);
+            if (index == -1) continue;
+            TaskItem single = tasks.get(index);
+            single.cancelJobs(handler);
+            tasks.remove(index);
+            insertIndex = insertIndex == -1 ? index : Math.min(insertIndex, index);
+        }
+
+        if (burst == null) {
+            burst = new TaskItem(TaskItem.Type.SWITCH, SWITCH_BURST_ID, "功能开关", null);
+            burst.isTimeBased = true;
+            burst.duration = SWITCH_BURST_DISPLAY_DURATION_MS;
+            tasks.add(insertIndex == -1 ? 0 : Math.min(insertIndex, tasks.size()), burst);
+            onTaskAdded();
+        } else {
+            burst.cancelJobs(handler);
+            burst.lastUpdateTime = System.currentTimeMillis();
+            burst.isAwaitingData = false;
+        }
+
+        boolean lastState = burst.switchState;
+        for (Map.Entry<String, PendingSwitch> entry : pendingSwitches.entrySet()) {
+            PendingSwitch pending = entry.getValue();
+            burst.details.remove(pending.text);
+            burst.details.put(pending.text, pending.state);
+            lastState = pending.state;
+        }
+
+        int enabledCount = 0;
+        for (boolean state : burst.details.values()) {
+            if (state) enabledCount++;
+        }
+        int disabledCount = burst.details.size() - enabledCount;
+        burst.setSwitchState(disabledCount == 0 || (enabledCount != 0 && lastState));
+        burst.setSubtitle(buildBurstSubtitle(burst));
+
+        android.util.Log.d("DynamicIsland", String.format("Switch burst: %d modules (%d on, %d off)",
+                burst.details.size(), enabledCount, disabledCount));
+
+        startTimeBasedAnimation(burst);
+    }
+
+    private String buildBurstSubtitle(TaskItem burst) {
+        int enabledCount = 0;
+        for (boolean state : burst.details.values()) {
+            if (state) enabledCount++;
+        }
+        int disabledCount = burst.details.size() - enabledCount;
+
+        NumberFormatter.Label label = burstSubtitle.clear();
+        if (burst.detailsExpanded) {
+            boolean first = true;
+            for (String name : burst.details.keySet()) {
+                if (!first) label.append('、');
+                label.append(name);
+                first = false;
+            }
+        } else {
+            label.appendInt(burst.details.size()).append(" 个功能");
+        }
+        label.append('|');
+
+        if (disabledCount == 0) {
+            label.append("已被开启");
+        } else if (enabledCount == 0) {
+            label.append("已被关闭");
+        } else {
+            label.appendInt(enabledCount).append(" 开启 / ").appendInt(disabledCount).append(" 关闭");
+        }
+
+        return label.contentEquals(burst.subtitle) ? burst.subtitle : label.toString();
     }
 
     public void addOrUpdateProgress(String identifier, String text,
@@ -197,6 +507,10 @@ public class DynamicIslandManager {
     }
 
     public void hide() {
+        handler.removeCallbacks(flushSwitchBurstRunnable);
+        pendingSwitches.clear();
+        burstWindowOpen = false;
+        leadingSwitchId = null;
         for (TaskItem task : tasks) {
             task.cancelJobs(handler);
         }
@@ -213,6 +527,7 @@ public class DynamicIslandManager {
     public void removeListener(StateChangeListener listener) { listeners.remove(listener); }
 
     private void notifyTasksChanged() {
+        scheduleExpiry();
         boolean expanded = isExpanded();
         for (StateChangeListener listener : listeners) {
             listener.onTasksChanged();
@@ -270,6 +585,9 @@ public class DynamicIslandManager {
         }
         if (hasChanged) {
             notifyTasksChanged();
+        } else {
+            // 可能刚进入等待期，按新的到期时间重新安排
+            scheduleExpiry();
         }
     }
 
@@ -287,12 +605,13 @@ public class DynamicIslandManager {
             startTimeBasedAnimation(newTask);
         }
         tasks.add(0, newTask);
+        onTaskAdded();
     }
 
     private void updateProgressInternal(TaskItem task, String text, String subtitle,
                                        Float progressValue, Long duration) {
-        task.text = text;
-        task.subtitle = subtitle;
+        task.setText(text);
+        task.setSubtitle(subtitle);
         task.lastUpdateTime = System.currentTimeMillis();
         task.isAwaitingData = false;
         task.removing = false;
@@ -317,24 +636,20 @@ public class DynamicIslandManager {
         if (Math.abs(delta) < 0.001f) return;
 
         final long startTime = System.currentTimeMillis();
-        final boolean isSwitch = task.type == TaskItem.Type.SWITCH;
 
+        // 进度只推送给绑定的视图，不再每帧通知整个灵动岛
         task.progressRunnable = new Runnable() {
             @Override
             public void run() {
                 long elapsed = System.currentTimeMillis() - startTime;
                 float fraction = Math.min(1f, elapsed / (float) durationMs);
                 float easedFraction = (float) (1 - Math.pow(1 - fraction, 3));
-                task.displayProgress = startProgress + delta * easedFraction;
-
-                if (!isSwitch) {
-                    notifyTasksChanged();
-                }
+                task.setDisplayProgress(startProgress + delta * easedFraction);
 
                 if (fraction < 1f) {
                     handler.postDelayed(this, 16);
                 } else {
-                    task.displayProgress = task.targetProgress;
+                    task.setDisplayProgress(task.targetProgress);
                     task.progressRunnable = null;
 
                     notifyTasksChanged();
@@ -1,5 +1,7 @@
 package com.phoenix.gui.ui.dynamic;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.*;
@@ -15,12 +17,20 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
 
+import com.phoenix.gui.config.ConfigManager;
 import com.phoenix.gui.ui.ThemeManager;
+import com.phoenix.gui.ui.perf.ActivityTracker;
+import com.phoenix.gui.ui.perf.FrameMonitor;
+import com.phoenix.gui.ui.perf.LayerManager;
+import com.phoenix.gui.ui.perf.QualityGovernor;
+import com.phoenix.gui.ui.perf.TextMetricsCache;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class DynamicIslandView extends FrameLayout implements DynamicIslandManager.StateChangeListener, ThemeManager.OnThemeColorChangeListener {
+public class DynamicIslandView extends FrameLayout implements DynamicIslandManager.StateChangeListener,
+        ThemeManager.OnThemeColorChangeListener, FrameMonitor.OnFrameStatsListener,
+        QualityGovernor.OnQualityChangeListener, ActivityTracker.OnActiveChangeListener {
 
     private static final float COLLAPSED_HEIGHT_DP = 36f;
     private static final float EXPANDED_CORNER_RADIUS_DP = 28f;
@@ -40,8 +50,10 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
 
     private Paint backgroundPaint;
     private Paint glowPaint;
+    private BlurMaskFilter glowBlurFilter;
     private RectF backgroundRect = new RectF();
     private RectF glowRect = new RectF();
+    private final Path clipPath = new Path();
 
     private float sheenPosition = -1.0f;
     private ValueAnimator sheenAnimator;
@@ -49,17 +61,18 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
     private CollapsedContentView collapsedContent;
     private FrameLayout expandedContainer;
 
+    // 变形动画只改变绘制区域，布局尺寸只在目标变化时更新
     private float currentHeight;
     private float currentWidth;
     private float currentCornerRadius;
+    private int layoutWidth;
+    private int layoutHeight;
     private ValueAnimator sizeAnimator;
+    private final Runnable fitContentRunnable = this::animateSizeToFitContent;
     private boolean wasExpanded = false;
 
     private TextPaint textPaint;
 
-    private int frameCount = 0;
-    private long lastFpsTime = System.nanoTime();
-
     public DynamicIslandView(@NonNull Context context) {
         super(context);
         init(context);
@@ -72,7 +85,6 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
 
     private void init(Context context) {
         setWillNotDraw(false);
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
         setClipChildren(false);
         setClipToPadding(false);
 
@@ -81,14 +93,14 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         initPaints();
         initSheenAnimation();
         initContentViews(context);
-        startFpsMonitor();
     }
 
     private void initPaints() {
         glowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         glowPaint.setColor(ThemeManager.getGlowColor());
         glowPaint.setStyle(Paint.Style.FILL);
-        glowPaint.setMaskFilter(new BlurMaskFilter(dpToPx(GLOW_BLUR_RADIUS_DP), BlurMaskFilter.Blur.NORMAL));
+        glowBlurFilter = new BlurMaskFilter(dpToPx(GLOW_BLUR_RADIUS_DP), BlurMaskFilter.Blur.NORMAL);
+        glowPaint.setMaskFilter(glowBlurFilter);
 
         backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         backgroundPaint.setColor(ThemeManager.getGlassBackground());
@@ -106,12 +118,20 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
             sheenPosition = (float) animation.getAnimatedValue();
             invalidate();
         });
-        sheenAnimator.start();
     }
 
     private void initContentViews(Context context) {
         collapsedContent = new CollapsedContentView(context);
         collapsedContent.setVisibility(VISIBLE);
+        collapsedContent.setMetricMode(ConfigManager.getDynamicIslandMetric());
+        // 点击收起状态的灵动岛在 FPS 与最差帧耗时之间切换
+        collapsedContent.setOnClickListener(v -> {
+            int mode = collapsedContent.getMetricMode() == CollapsedContentView.METRIC_FPS
+                    ? CollapsedContentView.METRIC_WORST_FRAME : CollapsedContentView.METRIC_FPS;
+            collapsedContent.setMetricMode(mode);
+            collapsedContent.updateFrameStats(FrameMonitor.getFps(), FrameMonitor.getWindowWorstFrameMs());
+            ConfigManager.setDynamicIslandMetric(mode);
+        });
         LayoutParams collapsedParams = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.MATCH_PARENT);
         collapsedParams.gravity = Gravity.CENTER;
         addView(collapsedContent, collapsedParams);
@@ -125,27 +145,6 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         addView(expandedContainer, expandedParams);
     }
 
-    private void startFpsMonitor() {
-        Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
-            @Override
-            public void doFrame(long frameTimeNanos) {
-                frameCount++;
-                long elapsedNanos = frameTimeNanos - lastFpsTime;
-                if (elapsedNanos >= 1_000_000_000L) {
-                    if (manager != null) {
-                        manager.setCurrentFps(frameCount);
-                        if (collapsedContent != null) {
-                            collapsedContent.updateFps(frameCount);
-                        }
-                    }
-                    frameCount = 0;
-                    lastFpsTime = frameTimeNanos;
-                }
-                Choreographer.getInstance().postFrameCallback(this);
-            }
-        });
-    }
-
     public void setManager(DynamicIslandManager manager) {
         if (this.manager != null) {
             this.manager.removeListener(this);
@@ -163,45 +162,41 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         float scale = manager != null ? manager.getScale() : 0.7f;
-        int glowPadding = (int) (dpToPx(GLOW_BLUR_RADIUS_DP + GLOW_SPREAD_RADIUS_DP) * scale);
-        int safetyMargin = (int) (dpToPx(SHADOW_SAFETY_MARGIN_DP) * scale);
-        int totalPadding = glowPadding + safetyMargin;
-
-        int contentWidth = (int) currentWidth;
-        int contentHeight = (int) currentHeight;
+        int totalPadding = getTotalPadding(scale);
 
-        if (currentWidth == 0 || currentHeight == 0) {
+        if (layoutWidth == 0 || layoutHeight == 0) {
             boolean isExpanded = manager != null && manager.isExpanded();
             if (isExpanded) {
-                contentHeight = calculateExpandedHeight(scale);
-                contentWidth = calculateExpandedWidth(scale);
+                currentHeight = calculateExpandedHeight(scale);
+                currentWidth = calculateExpandedWidth(scale);
+                currentCornerRadius = dpToPx(EXPANDED_CORNER_RADIUS_DP) * scale;
             } else {
-                contentHeight = (int) (dpToPx(COLLAPSED_HEIGHT_DP) * scale);
-                contentWidth = calculateCollapsedWidth(scale);
+                currentHeight = (int) (dpToPx(COLLAPSED_HEIGHT_DP) * scale);
+                currentWidth = calculateCollapsedWidth(scale);
+                currentCornerRadius = currentHeight / 2f;
             }
-            currentHeight = contentHeight;
-            currentWidth = contentWidth;
-            currentCornerRadius = isExpanded ? dpToPx(EXPANDED_CORNER_RADIUS_DP) * scale : contentHeight / 2f;
+            layoutWidth = (int) currentWidth;
+            layoutHeight = (int) currentHeight;
         }
 
-        int contentWidthSpec = MeasureSpec.makeMeasureSpec(contentWidth, MeasureSpec.AT_MOST);
-        int contentHeightSpec = MeasureSpec.makeMeasureSpec(contentHeight, MeasureSpec.EXACTLY);
-
-        measureChild(collapsedContent, contentWidthSpec, contentHeightSpec);
-        measureChild(expandedContainer, MeasureSpec.makeMeasureSpec(contentWidth, MeasureSpec.EXACTLY), contentHeightSpec);
+        int collapsedHeight = (int) (dpToPx(COLLAPSED_HEIGHT_DP) * scale);
+        measureChild(collapsedContent,
+                MeasureSpec.makeMeasureSpec(layoutWidth, MeasureSpec.AT_MOST),
+                MeasureSpec.makeMeasureSpec(collapsedHeight, MeasureSpec.EXACTLY));
+        measureChild(expandedContainer,
+                MeasureSpec.makeMeasureSpec(layoutWidth, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(layoutHeight, MeasureSpec.EXACTLY));
 
         setMeasuredDimension(
-                contentWidth + totalPadding * 2,
-                contentHeight + totalPadding * 2
+                layoutWidth + totalPadding * 2,
+                layoutHeight + totalPadding * 2
         );
     }
 
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         float scale = manager != null ? manager.getScale() : 0.7f;
-        int glowPadding = (int) (dpToPx(GLOW_BLUR_RADIUS_DP + GLOW_SPREAD_RADIUS_DP) * scale);
-        int safetyMargin = (int) (dpToPx(SHADOW_SAFETY_MARGIN_DP) * scale);
-        int totalPadding = glowPadding + safetyMargin;
+        int totalPadding = getTotalPadding(scale);
 
         int contentLeft = totalPadding;
         int contentTop = totalPadding;
@@ -211,7 +206,9 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         int contentWidth = contentRight - contentLeft;
         int collapsedWidth = collapsedContent.getMeasuredWidth();
         int collapsedLeft = contentLeft + (contentWidth - collapsedWidth) / 2;
-        collapsedContent.layout(collapsedLeft, contentTop, collapsedLeft + collapsedWidth, contentBottom);
+        collapsedContent.layout(collapsedLeft, contentTop,
+                collapsedLeft + collapsedWidth, contentTop + collapsedContent.getMeasuredHeight());
+        updateCollapsedOffset();
 
         expandedContainer.layout(contentLeft, contentTop, contentRight, contentBottom);
     }
@@ -221,28 +218,50 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         super.onDraw(canvas);
 
         float scale = manager != null ? manager.getScale() : 0.7f;
-        int glowPadding = (int) (dpToPx(GLOW_BLUR_RADIUS_DP + GLOW_SPREAD_RADIUS_DP) * scale);
-        int safetyMargin = (int) (dpToPx(SHADOW_SAFETY_MARGIN_DP) * scale);
-        int totalPadding = glowPadding + safetyMargin;
+        updateBackgroundRect(scale);
 
-        float contentLeft = totalPadding;
-        float contentTop = totalPadding;
-        float contentRight = getWidth() - totalPadding;
-        float contentBottom = getHeight() - totalPadding;
-
-        backgroundRect.set(contentLeft, contentTop, contentRight, contentBottom);
-
-        float spreadPx = dpToPx(GLOW_SPREAD_RADIUS_DP) * scale;
+        // 平面阴影只留一半外扩，避免一圈硬边太显眼
+        float spreadPx = dpToPx(GLOW_SPREAD_RADIUS_DP) * scale * (QualityGovernor.isBlurEnabled() ? 1f : 0.5f);
         glowRect.set(
-                contentLeft - spreadPx,
-                contentTop - spreadPx,
-                contentRight + spreadPx,
-                contentBottom + spreadPx
+                backgroundRect.left - spreadPx,
+                backgroundRect.top - spreadPx,
+                backgroundRect.right + spreadPx,
+                backgroundRect.bottom + spreadPx
         );
 
         canvas.drawRoundRect(glowRect, currentCornerRadius, currentCornerRadius, glowPaint);
         canvas.drawRoundRect(backgroundRect, currentCornerRadius, currentCornerRadius, backgroundPaint);
-        drawSheen(canvas, backgroundRect, currentCornerRadius);
+        if (QualityGovernor.isSheenEnabled()) {
+            drawSheen(canvas, backgroundRect, currentCornerRadius);
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        // 子视图按布局尺寸排版，绘制时裁剪到当前动画中的圆角矩形
+        clipPath.reset();
+        clipPath.addRoundRect(backgroundRect, currentCornerRadius, currentCornerRadius, Path.Direction.CW);
+        canvas.save();
+        canvas.clipPath(clipPath);
+        super.dispatchDraw(canvas);
+        canvas.restore();
+    }
+
+    private void updateBackgroundRect(float scale) {
+        int totalPadding = getTotalPadding(scale);
+        float contentLeft = totalPadding + (layoutWidth - currentWidth) / 2f;
+        float contentTop = totalPadding;
+        backgroundRect.set(contentLeft, contentTop, contentLeft + currentWidth, contentTop + currentHeight);
+    }
+
+    private void updateCollapsedOffset() {
+        collapsedContent.setTranslationY((currentHeight - collapsedContent.getHeight()) / 2f);
+    }
+
+    private int getTotalPadding(float scale) {
+        int glowPadding = (int) (dpToPx(GLOW_BLUR_RADIUS_DP + GLOW_SPREAD_RADIUS_DP) * scale);
+        int safetyMargin = (int) (dpToPx(SHADOW_SAFETY_MARGIN_DP) * scale);
+        return glowPadding + safetyMargin;
     }
 
     private void drawSheen(Canvas canvas, RectF rect, float cornerRadius) {
@@ -269,7 +288,8 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
     @Override
     public void onTasksChanged() {
         updateContent();
-        post(() -> animateSizeToFitContent());
+        removeCallbacks(fitContentRunnable);
+        post(fitContentRunnable);
     }
 
     @Override
@@ -281,12 +301,36 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         }
     }
 
+    // 预览时只做整体变换，不重新排版
+    public void previewScale(float scale) {
+        if (manager == null) return;
+        float clamped = Math.max(0.5f, Math.min(2.0f, scale));
+        float transform = clamped / manager.getScale();
+        setPivotX(getWidth() / 2f);
+        setPivotY(0f);
+        setScaleX(transform);
+        setScaleY(transform);
+    }
+
+    // 撤掉预览变换，回到当前生效的尺寸
+    public void resetPreview() {
+        setScaleX(1f);
+        setScaleY(1f);
+    }
+
     @Override
     public void onConfigChanged(float scale, String persistentText) {
+        resetPreview();
         if (collapsedContent != null) {
             collapsedContent.updateConfig(scale, persistentText);
         }
+        // 展开内容也要按新缩放重建，否则只有收起态跟着变
+        if (manager != null && manager.isExpanded()) {
+            rebuildExpandedContent();
+        }
         requestLayout();
+        removeCallbacks(fitContentRunnable);
+        post(fitContentRunnable);
     }
 
     private void updateContent() {
@@ -370,9 +414,7 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
             TaskItemView view = (TaskItemView) child;
             DynamicIslandManager.TaskItem newTask = tasks.get(i);
 
-            view.task = newTask;
-
-            view.updateContent();
+            view.bindTask(newTask);
         }
     }
 
@@ -395,7 +437,12 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
     private TaskItemView createTaskItemView(DynamicIslandManager.TaskItem task) {
         switch (task.type) {
             case SWITCH:
-                return new SwitchItemView(getContext(), task, manager.getScale());
+                SwitchItemView switchView = new SwitchItemView(getContext(), task, manager.getScale());
+                // 点击汇总条目展开/收起具体的功能列表
+                switchView.setOnClickListener(v -> {
+                    if (manager != null) manager.toggleDetails(((TaskItemView) v).task.identifier);
+                });
+                return switchView;
             case PROGRESS:
                 return new ProgressItemView(getContext(), task, manager.getScale());
             default:
@@ -425,22 +472,22 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         float targetCorner = expanded ? dpToPx(EXPANDED_CORNER_RADIUS_DP) * scale : targetHeight / 2f;
 
         if (expanded) {
-            collapsedContent.animate().alpha(0f).scaleX(0.9f).scaleY(0.9f).setDuration(CONTENT_FADE_OUT_MS)
+            collapsedContent.animate().alpha(0f).scaleX(0.9f).scaleY(0.9f).setDuration(QualityGovernor.scaleDuration(CONTENT_FADE_OUT_MS))
                     .setInterpolator(new FastOutSlowInInterpolator()).withEndAction(() -> collapsedContent.setVisibility(GONE)).start();
             expandedContainer.setVisibility(VISIBLE);
             expandedContainer.setAlpha(0f);
             expandedContainer.setScaleX(0.9f);
             expandedContainer.setScaleY(0.9f);
-            expandedContainer.animate().alpha(1f).scaleX(1f).scaleY(1f).setDuration(CONTENT_FADE_IN_MS)
+            expandedContainer.animate().alpha(1f).scaleX(1f).scaleY(1f).setDuration(QualityGovernor.scaleDuration(CONTENT_FADE_IN_MS))
                     .setInterpolator(new FastOutSlowInInterpolator()).start();
         } else {
-            expandedContainer.animate().alpha(0f).scaleX(0.9f).scaleY(0.9f).setDuration(CONTENT_FADE_OUT_MS)
+            expandedContainer.animate().alpha(0f).scaleX(0.9f).scaleY(0.9f).setDuration(QualityGovernor.scaleDuration(CONTENT_FADE_OUT_MS))
                     .setInterpolator(new FastOutSlowInInterpolator()).withEndAction(() -> expandedContainer.setVisibility(GONE)).start();
             collapsedContent.setVisibility(VISIBLE);
             collapsedContent.setAlpha(0f);
             collapsedContent.setScaleX(0.9f);
             collapsedContent.setScaleY(0.9f);
-            collapsedContent.animate().alpha(1f).scaleX(1f).scaleY(1f).setDuration(CONTENT_FADE_IN_MS)
+            collapsedContent.animate().alpha(1f).scaleX(1f).scaleY(1f).setDuration(QualityGovernor.scaleDuration(CONTENT_FADE_IN_MS))
                     .setInterpolator(new FastOutSlowInInterpolator()).start();
         }
         animateSizeWithSpring(targetHeight, targetWidth, targetCorner);
@@ -453,21 +500,54 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
 
         if (sizeAnimator != null) sizeAnimator.cancel();
 
+        // 动画期间按起止尺寸的并集布局一次，结束后再按目标尺寸布局一次
+        setLayoutSize((int) Math.ceil(Math.max(startWidth, targetWidth)),
+                (int) Math.ceil(Math.max(startHeight, targetHeight)));
+
         sizeAnimator = ValueAnimator.ofFloat(0f, 1f);
-        sizeAnimator.setDuration(SIZE_ANIMATION_DURATION_MS);
-        sizeAnimator.setInterpolator(new OvershootInterpolator(0.8f));
+        sizeAnimator.setDuration(QualityGovernor.scaleDuration(SIZE_ANIMATION_DURATION_MS));
+        // 最低档去掉回弹
+        sizeAnimator.setInterpolator(QualityGovernor.getLevel() >= QualityGovernor.LEVEL_REDUCED_MOTION
+                ? new FastOutSlowInInterpolator() : new OvershootInterpolator(0.8f));
 
         sizeAnimator.addUpdateListener(animation -> {
             float fraction = animation.getAnimatedFraction();
             currentHeight = startHeight + (targetHeight - startHeight) * fraction;
             currentWidth = startWidth + (targetWidth - startWidth) * fraction;
             currentCornerRadius = startCorner + (targetCorner - startCorner) * fraction;
-            requestLayout();
+            updateCollapsedOffset();
+            invalidate();
+        });
+        sizeAnimator.addListener(new AnimatorListenerAdapter() {
+            private boolean cancelled = false;
+
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                cancelled = true;
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (cancelled) return;
+                currentHeight = targetHeight;
+                currentWidth = targetWidth;
+                currentCornerRadius = targetCorner;
+                setLayoutSize(Math.round(targetWidth), Math.round(targetHeight));
+                updateCollapsedOffset();
+                invalidate();
+            }
         });
 
         sizeAnimator.start();
     }
 
+    private void setLayoutSize(int width, int height) {
+        if (width == layoutWidth && height == layoutHeight) return;
+        layoutWidth = width;
+        layoutHeight = height;
+        requestLayout();
+    }
+
     private int calculateExpandedHeight(float scale) {
         if (manager == null) return (int) (dpToPx(COLLAPSED_HEIGHT_DP) * scale);
         int totalHeight = 0;
@@ -512,6 +592,9 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
     }
 
     private int calculateTaskWidth(DynamicIslandManager.TaskItem task, float scale) {
+        int cachedWidth = task.getCachedWidth(scale);
+        if (cachedWidth >= 0) return cachedWidth;
+
         float sidePadding = dpToPx(HORIZONTAL_ITEM_PADDING_DP * 2) * scale;
         float iconWidth = 0;
         float spacing = 0;
@@ -524,19 +607,21 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
 
         textPaint.setTextSize(spToPx(15 * scale));
         textPaint.setTypeface(Typeface.DEFAULT_BOLD);
-        float titleWidth = textPaint.measureText(task.text);
+        float titleWidth = TextMetricsCache.measureText(textPaint, task.text);
 
         float subtitleWidth = 0;
         if (task.subtitle != null) {
             textPaint.setTextSize(spToPx(12 * scale));
             textPaint.setTypeface(Typeface.DEFAULT);
-            subtitleWidth = textPaint.measureText(task.subtitle.replace("|", " "));
+            subtitleWidth = TextMetricsCache.measureText(textPaint, task.subtitle.replace('|', ' '));
         }
 
         float textWidth = Math.max(titleWidth, subtitleWidth);
         float extraPadding = dpToPx(32) * scale;
 
-        return (int) (sidePadding + iconWidth + spacing + textWidth + extraPadding);
+        int width = (int) (sidePadding + iconWidth + spacing + textWidth + extraPadding);
+        task.setCachedWidth(scale, width);
+        return width;
     }
 
     private float dpToPx(float dp) {
@@ -552,10 +637,78 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         invalidate();
     }
 
+    @Override
+    public void onQualityChanged(int level) {
+        applyQualityLevel();
+    }
+
+    private void applyQualityLevel() {
+        // 层预算不够时同样退回平面阴影
+        boolean blur = QualityGovernor.isBlurEnabled() && LayerManager.requestSoftwareLayer(this);
+        glowPaint.setMaskFilter(blur ? glowBlurFilter : null);
+        glowPaint.setColor(ThemeManager.getGlowColor());
+        if (!blur) {
+            glowPaint.setAlpha(Color.alpha(ThemeManager.getGlowColor()) / 2);
+        }
+        // 模糊需要软件层，换成平面阴影后回到硬件绘制
+        if (!blur) {
+            LayerManager.release(this);
+        }
+
+        updateSheenState();
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // 软件层大小跟着布局尺寸走，重新登记
+        if (isAttachedToWindow()) {
+            applyQualityLevel();
+        }
+    }
+
+    @Override
+    public void onActiveChanged(boolean active) {
+        updateSheenState();
+        // 空闲时帧统计已挂起，恢复后下一次统计会把数字换回来
+        if (!active && collapsedContent != null) {
+            collapsedContent.showIdle();
+        }
+    }
+
+    // 扫光只在画质允许且界面活跃时跑，挂起用 pause 以便原地恢复
+    private void updateSheenState() {
+        boolean run = QualityGovernor.isSheenEnabled() && isAttachedToWindow() && ActivityTracker.isActive();
+        if (run) {
+            if (sheenAnimator.isPaused()) {
+                sheenAnimator.resume();
+            } else if (!sheenAnimator.isStarted()) {
+                sheenAnimator.start();
+            }
+        } else if (sheenAnimator.isStarted() && !sheenAnimator.isPaused()) {
+            sheenAnimator.pause();
+        }
+    }
+
+    @Override
+    public void onFrameStats(int fps, float worstFrameMs, int jankyFrames) {
+        if (manager != null) {
+            manager.setCurrentFps(fps);
+        }
+        if (collapsedContent != null) {
+            collapsedContent.updateFrameStats(fps, worstFrameMs);
+        }
+    }
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
         ThemeManager.addListener(this);
+        FrameMonitor.addListener(this);
+        QualityGovernor.addListener(this);
+        ActivityTracker.addListener(this);
+        applyQualityLevel();
     }
 
     @Override
@@ -563,7 +716,12 @@ public class DynamicIslandView extends FrameLayout implements DynamicIslandManag
         super.onDetachedFromWindow();
         if (sheenAnimator != null) sheenAnimator.cancel();
         if (sizeAnimator != null) sizeAnimator.cancel();
+        removeCallbacks(fitContentRunnable);
         // 停止监听应该是
         ThemeManager.removeListener(this);
+        FrameMonitor.removeListener(this);
+        QualityGovernor.removeListener(this);
+        ActivityTracker.removeListener(this);
+        LayerManager.release(this);
     }
 }
\ No newline at end of file
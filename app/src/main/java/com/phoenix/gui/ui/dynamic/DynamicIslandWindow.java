@@ -24,6 +24,17 @@ public class DynamicIslandWindow {
         android.content.SharedPreferences prefs = context.getSharedPreferences("SettingsPrefs", Context.MODE_PRIVATE);
         float scale = prefs.getFloat("dynamicIslandScale", 0.7f);
         String username = prefs.getString("dynamicIslandUsername", "User");
+
+        // 挂起过的话直接复用原来的视图，只同步隐藏期间改过的配置
+        if (dynamicIslandView != null && manager != null) {
+            manager.updateConfig(scale, username);
+            if (container != null) {
+                container.setVisibility(View.VISIBLE);
+                isShowing = true;
+            }
+            return;
+        }
+
         manager = new DynamicIslandManager(scale, username);
 
         dynamicIslandView = new DynamicIslandView(context);
@@ -41,9 +52,22 @@ public class DynamicIslandWindow {
         }
     }
 
-    public void hide() {
+    // 只收起不销毁，视图和测量结果留着下次 show 直接用
+    public void suspend() {
         if (!isShowing) return;
 
+        if (manager != null) {
+            manager.hide();
+        }
+        if (container != null) {
+            container.setVisibility(View.GONE);
+        }
+        isShowing = false;
+    }
+
+    public void hide() {
+        if (!isShowing && dynamicIslandView == null) return;
+
         try {
             if (container != null) {
                 container.removeAllViews();
@@ -71,6 +95,18 @@ public class DynamicIslandWindow {
         }
     }
 
+    public void previewScale(float scale) {
+        if (dynamicIslandView != null) {
+            dynamicIslandView.previewScale(scale);
+        }
+    }
+
+    public void resetPreview() {
+        if (dynamicIslandView != null) {
+            dynamicIslandView.resetPreview();
+        }
+    }
+
     public void addSwitch(String identifier, String text, boolean state) {
         if (manager != null) {
             manager.addSwitch(identifier, text, state);
@@ -8,8 +8,11 @@ import android.view.View;
 import android.view.animation.LinearInterpolator;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.phoenix.gui.ui.perf.ActivityTracker;
+import com.phoenix.gui.ui.perf.QualityGovernor;
 
-public class MaterialProgressBar extends View {
+public class MaterialProgressBar extends View
+        implements QualityGovernor.OnQualityChangeListener, ActivityTracker.OnActiveChangeListener {
 
     private static final float DEFAULT_HEIGHT_DP = 8f;
 
@@ -49,10 +52,10 @@ public class MaterialProgressBar extends View {
         progressPaint.setStyle(Paint.Style.FILL);
         progressPaint.setColor(com.phoenix.gui.ui.ThemeManager.getThemeColor());
 
-        startSheenAnimation();
+        createSheenAnimation();
     }
 
-    private void startSheenAnimation() {
+    private void createSheenAnimation() {
         sheenAnimator = ValueAnimator.ofFloat(0f, 2f);
         sheenAnimator.setDuration(1000);
         sheenAnimator.setInterpolator(new LinearInterpolator());
@@ -63,8 +66,6 @@ public class MaterialProgressBar extends View {
             sheenPosition = (float) animation.getAnimatedValue();
             invalidate();
         });
-
-        sheenAnimator.start();
     }
 
     @Override
@@ -99,7 +100,9 @@ public class MaterialProgressBar extends View {
 
             canvas.drawRoundRect(progressRect, cornerRadius, cornerRadius, progressPaint);
 
-            drawSheen(canvas, progressRect);
+            if (QualityGovernor.isSheenEnabled()) {
+                drawSheen(canvas, progressRect);
+            }
 
             canvas.restore();
         }
@@ -143,9 +146,36 @@ public class MaterialProgressBar extends View {
         requestLayout();
     }
 
+    @Override
+    public void onQualityChanged(int level) {
+        updateSheenState();
+        invalidate();
+    }
+
+    @Override
+    public void onActiveChanged(boolean active) {
+        updateSheenState();
+    }
+
+    // 降级或界面空闲时暂停扫光，不再每帧重绘
+    private void updateSheenState() {
+        if (sheenAnimator == null) return;
+        if (QualityGovernor.isSheenEnabled() && isAttachedToWindow() && ActivityTracker.isActive()) {
+            if (sheenAnimator.isPaused()) {
+                sheenAnimator.resume();
+            } else if (!sheenAnimator.isStarted()) {
+                sheenAnimator.start();
+            }
+        } else if (sheenAnimator.isStarted() && !sheenAnimator.isPaused()) {
+            sheenAnimator.pause();
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        QualityGovernor.removeListener(this);
+        ActivityTracker.removeListener(this);
         if (sheenAnimator != null) {
             sheenAnimator.cancel();
         }
@@ -154,8 +184,8 @@ public class MaterialProgressBar extends View {
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
-        if (sheenAnimator != null && !sheenAnimator.isRunning()) {
-            sheenAnimator.start();
-        }
+        QualityGovernor.addListener(this);
+        ActivityTracker.addListener(this);
+        updateSheenState();
     }
 }
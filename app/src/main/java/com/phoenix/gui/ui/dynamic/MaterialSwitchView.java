@@ -1,17 +1,21 @@
 package com.phoenix.gui.ui.dynamic;
 
-import android.animation.ValueAnimator;
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.graphics.*;
+import android.os.Build;
 import android.util.AttributeSet;
 import android.util.TypedValue;
 import android.view.View;
-import android.view.animation.OvershootInterpolator;
+import android.view.animation.AccelerateDecelerateInterpolator;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.phoenix.gui.ui.AnimationEngine;
 import com.phoenix.gui.ui.ThemeManager;
+import com.phoenix.gui.ui.perf.LayerManager;
 
-public class MaterialSwitchView extends View implements ThemeManager.OnThemeColorChangeListener {
+public class MaterialSwitchView extends View
+        implements ThemeManager.OnThemeColorChangeListener, AnimationEngine.Target {
 
     private static final float TRACK_WIDTH_DP = 52f;
     private static final float TRACK_HEIGHT_DP = 32f;
@@ -22,8 +26,16 @@ public class MaterialSwitchView extends View implements ThemeManager.OnThemeColo
     private float thumbPosition = 0f;
     private float trackColorFraction = 0f;
 
-    private ValueAnimator thumbAnimator;
-    private ValueAnimator colorAnimator;
+    private static final int PROP_THUMB = 0;
+    private static final int PROP_TRACK_COLOR = 1;
+    private static final float THUMB_DAMPING = 0.6f;
+    private static final TimeInterpolator TRACK_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    private final RectF trackRect = new RectF();
+
+    private static final int THUMB_SHADOW_COLOR = 0x40000000;
+    private float thumbShadowRadius;
+    private float thumbShadowOffset;
 
     private Paint trackPaint;
     private Paint thumbPaint;
@@ -60,14 +72,9 @@ public class MaterialSwitchView extends View implements ThemeManager.OnThemeColo
         thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         thumbPaint.setStyle(Paint.Style.FILL);
         thumbPaint.setColor(com.phoenix.gui.ui.ThemeManager.getTextPrimary());
-        thumbPaint.setShadowLayer(
-            4f * density,
-            0f,
-            2f * density,
-            0x40000000
-        );
-
-        setLayerType(LAYER_TYPE_SOFTWARE, null);
+        thumbShadowRadius = 4f * density;
+        thumbShadowOffset = 2f * density;
+        thumbPaint.setShadowLayer(thumbShadowRadius, 0f, thumbShadowOffset, THUMB_SHADOW_COLOR);
 
         setClickable(false);
         setFocusable(false);
@@ -97,7 +104,7 @@ public class MaterialSwitchView extends View implements ThemeManager.OnThemeColo
         int trackColor = interpolateColor(colorTrackUnchecked, colorTrackChecked, trackColorFraction);
         trackPaint.setColor(trackColor);
 
-        RectF trackRect = new RectF(trackLeft, trackTop, trackRight, trackBottom);
+        trackRect.set(trackLeft, trackTop, trackRight, trackBottom);
         canvas.drawRoundRect(trackRect, trackRadius, trackRadius, trackPaint);
 
         float thumbTravelDistance = trackWidth - thumbSize - 2 * thumbPadding;
@@ -116,6 +123,7 @@ public class MaterialSwitchView extends View implements ThemeManager.OnThemeColo
             animateToPosition(checked ? 1f : 0f);
             animateTrackColor(checked ? 1f : 0f);
         } else {
+            AnimationEngine.cancelAll(this);
             thumbPosition = checked ? 1f : 0f;
             trackColorFraction = checked ? 1f : 0f;
             invalidate();
@@ -130,33 +138,25 @@ public class MaterialSwitchView extends View implements ThemeManager.OnThemeColo
         return isChecked;
     }
 
+    // 拇指用弹簧，连续切换时接着当前速度走
     private void animateToPosition(float targetPosition) {
-        if (thumbAnimator != null) {
-            thumbAnimator.cancel();
-        }
-
-        thumbAnimator = ValueAnimator.ofFloat(thumbPosition, targetPosition);
-        thumbAnimator.setDuration(200);
-        thumbAnimator.setInterpolator(new OvershootInterpolator(1.2f));
-        thumbAnimator.addUpdateListener(animation -> {
-            thumbPosition = (float) animation.getAnimatedValue();
-            invalidate();
-        });
-        thumbAnimator.start();
+        float velocity = AnimationEngine.getVelocity(this, PROP_THUMB);
+        AnimationEngine.spring(this, PROP_THUMB, thumbPosition, targetPosition, velocity,
+                AnimationEngine.STIFFNESS_MEDIUM, THUMB_DAMPING);
     }
 
     private void animateTrackColor(float targetFraction) {
-        if (colorAnimator != null) {
-            colorAnimator.cancel();
-        }
+        AnimationEngine.animateFloat(this, PROP_TRACK_COLOR, trackColorFraction, targetFraction, 150, TRACK_INTERPOLATOR);
+    }
 
-        colorAnimator = ValueAnimator.ofFloat(trackColorFraction, targetFraction);
-        colorAnimator.setDuration(150);
-        colorAnimator.addUpdateListener(animation -> {
-            trackColorFraction = (float) animation.getAnimatedValue();
-            invalidate();
-        });
-        colorAnimator.start();
+    @Override
+    public void onAnimationUpdate(int property, float value) {
+        if (property == PROP_THUMB) {
+            thumbPosition = value;
+        } else {
+            trackColorFraction = value;
+        }
+        invalidate();
     }
 
     private int interpolateColor(int colorA, int colorB, float fraction) {
@@ -190,17 +190,34 @@ public class MaterialSwitchView extends View implements ThemeManager.OnThemeColo
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
         ThemeManager.addListener(this);
+        updateShadowLayer();
     }
 
     @Override
-    protected void onDetachedFromWindow() {
-        super.onDetachedFromWindow();
-        if (thumbAnimator != null) {
-            thumbAnimator.cancel();
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (isAttachedToWindow()) {
+            updateShadowLayer();
         }
-        if (colorAnimator != null) {
-            colorAnimator.cancel();
+    }
+
+    // P 以下硬件绘制不支持图形阴影，需要软件层；预算不够时去掉阴影
+    private void updateShadowLayer() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) return;
+        if (LayerManager.requestSoftwareLayer(this)) {
+            thumbPaint.setShadowLayer(thumbShadowRadius, 0f, thumbShadowOffset, THUMB_SHADOW_COLOR);
+        } else {
+            LayerManager.release(this);
+            thumbPaint.clearShadowLayer();
         }
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        AnimationEngine.cancelAll(this);
         ThemeManager.removeListener(this);
+        LayerManager.release(this);
     }
 }
\ No newline at end of file
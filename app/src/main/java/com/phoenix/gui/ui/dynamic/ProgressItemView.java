@@ -27,6 +27,12 @@ public class ProgressItemView extends AnimatedTaskItemView implements ThemeManag
     private TextView subtitleText;
     private MaterialProgressBar progressBar;
 
+    private DynamicIslandManager.TaskItem renderedTask;
+    private int renderedTextVersion;
+    private int renderedSubtitleVersion;
+    private int renderedIconVersion;
+    private int renderedProgressVersion;
+
     public ProgressItemView(@NonNull Context context, DynamicIslandManager.TaskItem task, float scale) {
         super(context, task, scale);
     }
@@ -133,24 +139,38 @@ public class ProgressItemView extends AnimatedTaskItemView implements ThemeManag
 
     @Override
     protected void updateContent() {
+        boolean full = renderedTask != task;
+        renderedTask = task;
 
-        titleText.setText(task.text);
+        if (full || renderedTextVersion != task.textVersion) {
+            titleText.setText(task.text);
+            renderedTextVersion = task.textVersion;
+        }
 
-        if (task.subtitle != null && !task.subtitle.isEmpty()) {
-            subtitleText.setText(task.subtitle);
-            subtitleText.setVisibility(VISIBLE);
-        } else {
-            subtitleText.setVisibility(GONE);
+        if (full || renderedSubtitleVersion != task.subtitleVersion) {
+            if (task.subtitle != null && !task.subtitle.isEmpty()) {
+                subtitleText.setText(task.subtitle);
+                subtitleText.setVisibility(VISIBLE);
+            } else {
+                subtitleText.setVisibility(GONE);
+            }
+            renderedSubtitleVersion = task.subtitleVersion;
         }
 
-        if (task.icon != null) {
-            iconView.setImageDrawable(task.icon);
-            iconView.setVisibility(VISIBLE);
-        } else {
-            iconView.setVisibility(GONE);
+        if (full || renderedIconVersion != task.iconVersion) {
+            if (task.icon != null) {
+                iconView.setImageDrawable(task.icon);
+                iconView.setVisibility(VISIBLE);
+            } else {
+                iconView.setVisibility(GONE);
+            }
+            renderedIconVersion = task.iconVersion;
         }
 
-        progressBar.setProgress(task.displayProgress);
+        if (full || renderedProgressVersion != task.progressVersion) {
+            progressBar.setProgress(task.displayProgress);
+            renderedProgressVersion = task.progressVersion;
+        }
     }
 
     private int adjustAlpha(int color, float alpha) {
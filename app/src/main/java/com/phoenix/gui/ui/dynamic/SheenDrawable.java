@@ -5,8 +5,9 @@ import android.graphics.*;
 import android.graphics.drawable.Drawable;
 import android.view.animation.LinearInterpolator;
 import androidx.annotation.NonNull;
+import com.phoenix.gui.ui.perf.ActivityTracker;
 
-public class SheenDrawable extends Drawable {
+public class SheenDrawable extends Drawable implements ActivityTracker.OnActiveChangeListener {
 
     private final Paint paint;
     private float cornerRadius = 0;
@@ -15,7 +16,9 @@ public class SheenDrawable extends Drawable {
 
     public SheenDrawable() {
         paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        startAnimation();
+        createAnimation();
+        ActivityTracker.addListener(this);
+        updateRunning();
     }
 
     public void setCornerRadius(float radius) {
@@ -23,7 +26,7 @@ public class SheenDrawable extends Drawable {
         invalidateSelf();
     }
 
-    private void startAnimation() {
+    private void createAnimation() {
         animator = ValueAnimator.ofFloat(-1.0f, 2.0f);
         animator.setDuration(2500);
         animator.setStartDelay(500);
@@ -35,8 +38,36 @@ public class SheenDrawable extends Drawable {
             sheenPosition = (float) animation.getAnimatedValue();
             invalidateSelf();
         });
+    }
+
+    // 不可见或界面空闲时暂停，恢复时从原位置继续
+    private void updateRunning() {
+        if (isVisible() && ActivityTracker.isActive()) {
+            if (animator.isPaused()) {
+                animator.resume();
+            } else if (!animator.isStarted()) {
+                animator.start();
+            }
+        } else if (animator.isStarted() && !animator.isPaused()) {
+            animator.pause();
+        }
+    }
+
+    @Override
+    public void onActiveChanged(boolean active) {
+        updateRunning();
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        boolean changed = super.setVisible(visible, restart);
+        updateRunning();
+        return changed;
+    }
 
-        animator.start();
+    public void release() {
+        ActivityTracker.removeListener(this);
+        animator.cancel();
     }
 
     @Override
@@ -1,7 +1,17 @@
 package com.phoenix.gui.ui.dynamic;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.text.style.CharacterStyle;
+import android.text.style.ReplacementSpan;
+import android.text.style.StyleSpan;
+import android.text.style.UpdateAppearance;
 import android.util.TypedValue;
 import android.view.Gravity;
 import android.widget.LinearLayout;
@@ -15,7 +25,13 @@ public class SwitchItemView extends TaskItemView implements ThemeManager.OnTheme
     private int colorPrimary;
     private MaterialSwitchView switchView;
     private TextView titleText;
-    private LinearLayout subtitleContainer;
+    private TextView subtitleText;
+
+    // 副标题是一个带 span 的 TextView，主题色变化只改 span 的颜色
+    // 注意 init 在父类构造中调用，这些字段不能用字段初始化器
+    private AccentSpan accentSpan;
+    private StyleSpan boldSpan;
+    private GapSpan gapSpan;
 
     private String lastRenderedText = null;
     private String lastRenderedSubtitle = null;
@@ -78,15 +94,23 @@ public class SwitchItemView extends TaskItemView implements ThemeManager.OnTheme
             LayoutParams.WRAP_CONTENT
         ));
 
-        subtitleContainer = new LinearLayout(context);
-        subtitleContainer.setOrientation(LinearLayout.HORIZONTAL);
-        subtitleContainer.setGravity(Gravity.CENTER_VERTICAL);
-        LinearLayout.LayoutParams subtitleContainerParams = new LinearLayout.LayoutParams(
+        accentSpan = new AccentSpan();
+        accentSpan.color = colorPrimary;
+        boldSpan = new StyleSpan(Typeface.BOLD);
+        gapSpan = new GapSpan((int) (dpToPx(4) * scale));
+
+        subtitleText = new TextView(context);
+        subtitleText.setTextColor(com.phoenix.gui.ui.ThemeManager.getTextSecondary());
+        subtitleText.setTextSize(12 * scale);
+        subtitleText.setSingleLine(true);
+        subtitleText.setEllipsize(TextUtils.TruncateAt.END);
+        subtitleText.setIncludeFontPadding(false);
+        LinearLayout.LayoutParams subtitleParams = new LinearLayout.LayoutParams(
             LayoutParams.MATCH_PARENT,
             LayoutParams.WRAP_CONTENT
         );
-        subtitleContainerParams.topMargin = (int) (dpToPx(2) * scale);
-        textContainer.addView(subtitleContainer, subtitleContainerParams);
+        subtitleParams.topMargin = (int) (dpToPx(2) * scale);
+        textContainer.addView(subtitleText, subtitleParams);
 
         updateContent();
     }
@@ -131,46 +155,59 @@ public class SwitchItemView extends TaskItemView implements ThemeManager.OnTheme
     }
 
     private void updateSubtitle() {
-        subtitleContainer.removeAllViews();
-
-        if (task.subtitle != null && task.subtitle.contains("|")) {
-            String[] parts = task.subtitle.split("\\|", 2);
-
-            TextView part1 = new TextView(getContext());
-            part1.setText(parts[0]);
-            part1.setTextColor(colorPrimary);
-            part1.setTextSize(12 * scale);
-            part1.setTypeface(null, Typeface.BOLD);
-            part1.setSingleLine(true);
-            part1.setIncludeFontPadding(false);
-            subtitleContainer.addView(part1);
-
-            LinearLayout.LayoutParams spacerParams = new LinearLayout.LayoutParams((int) (dpToPx(4) * scale), 0);
-            subtitleContainer.addView(new android.view.View(getContext()), spacerParams);
-
-            TextView part2 = new TextView(getContext());
-            part2.setText(parts[1]);
-            part2.setTextColor(com.phoenix.gui.ui.ThemeManager.getTextSecondary());
-            part2.setTextSize(12 * scale);
-            part2.setSingleLine(true);
-            part2.setIncludeFontPadding(false);
-            subtitleContainer.addView(part2);
-
-        } else if (task.subtitle != null) {
-            TextView subtitle = new TextView(getContext());
-            subtitle.setText(task.subtitle);
-            subtitle.setTextColor(com.phoenix.gui.ui.ThemeManager.getTextSecondary());
-            subtitle.setTextSize(12 * scale);
-            subtitle.setSingleLine(true);
-            subtitle.setIncludeFontPadding(false);
-            subtitleContainer.addView(subtitle);
+        String subtitle = task.subtitle;
+        int separator = subtitle != null ? subtitle.indexOf('|') : -1;
+
+        if (separator >= 0) {
+            SpannableStringBuilder builder = new SpannableStringBuilder();
+            builder.append(subtitle, 0, separator);
+            builder.setSpan(accentSpan, 0, separator, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            builder.setSpan(boldSpan, 0, separator, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+            int gapStart = builder.length();
+            builder.append(' ');
+            builder.setSpan(gapSpan, gapStart, gapStart + 1, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+
+            builder.append(subtitle, separator + 1, subtitle.length());
+            subtitleText.setText(builder);
+        } else {
+            subtitleText.setText(subtitle);
+        }
+    }
+
+    private static class AccentSpan extends CharacterStyle implements UpdateAppearance {
+        int color;
+
+        @Override
+        public void updateDrawState(TextPaint paint) {
+            paint.setColor(color);
+        }
+    }
+
+    // 两段文字之间的固定间距
+    private static class GapSpan extends ReplacementSpan {
+        private final int width;
+
+        GapSpan(int width) {
+            this.width = width;
+        }
+
+        @Override
+        public int getSize(Paint paint, CharSequence text, int start, int end, Paint.FontMetricsInt fm) {
+            return width;
+        }
+
+        @Override
+        public void draw(Canvas canvas, CharSequence text, int start, int end,
+                         float x, int top, int y, int bottom, Paint paint) {
         }
     }
 
     @Override
     public void onThemeColorChanged(int newColor) {
         this.colorPrimary = newColor;
-        updateSubtitle();
+        accentSpan.color = newColor;
+        subtitleText.invalidate();
     }
 
     @Override
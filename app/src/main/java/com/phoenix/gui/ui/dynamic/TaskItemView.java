@@ -20,6 +20,11 @@ public abstract class TaskItemView extends FrameLayout {
 
     protected abstract void updateContent();
 
+    public void bindTask(DynamicIslandManager.TaskItem newTask) {
+        this.task = newTask;
+        updateContent();
+    }
+
     protected float dpToPx(float dp) {
         return dp * getResources().getDisplayMetrics().density;
     }
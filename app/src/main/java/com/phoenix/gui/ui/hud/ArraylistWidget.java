@@ -0,0 +1,168 @@
+package com.phoenix.gui.ui.hud;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 右上角的模块列表，和 ArraylistView 一样的配色，进出场和重排都在渲染线程上做
+public class ArraylistWidget implements HudWidget {
+
+    // 指数逼近的速率，单位 1/s，和帧率无关
+    private static final float RATE = 14f;
+    private static final float SETTLE_EPSILON = 0.005f;
+
+    private static final class Row {
+        int color;
+        float textWidth;
+        float y;
+        float targetY;
+        // 0 在屏幕外，1 完全显示
+        float presence;
+        boolean leaving;
+    }
+
+    private final float density;
+    private final Map<String, Row> rows = new LinkedHashMap<>();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rect = new RectF();
+    private int accentColor;
+    private HudSnapshot last;
+
+    public ArraylistWidget(float density, float scaledDensity) {
+        this.density = density;
+        textPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        textPaint.setTextSize(10f * scaledDensity);
+    }
+
+    @Override
+    public int getAnchor() {
+        return ANCHOR_TOP_RIGHT;
+    }
+
+    @Override
+    public int getWidth() {
+        float width = 0f;
+        for (Row row : rows.values()) {
+            width = Math.max(width, row.textWidth);
+        }
+        return rows.isEmpty() ? 0 : (int) Math.ceil(width + getHorizontalPadding() * 2f);
+    }
+
+    @Override
+    public int getHeight() {
+        float height = 0f;
+        float rowHeight = getRowHeight();
+        for (Row row : rows.values()) {
+            height = Math.max(height, row.y + rowHeight);
+        }
+        return (int) Math.ceil(height);
+    }
+
+    @Override
+    public float getMaxUpdateRate() {
+        return 60f;
+    }
+
+    @Override
+    public boolean onSnapshot(HudSnapshot snapshot) {
+        // 列表没变时快照沿用同一份数组，统计和进度的发布不用重排
+        if (last != null && last.arraylistVisible == snapshot.arraylistVisible
+                && last.moduleNames == snapshot.moduleNames && last.moduleColors == snapshot.moduleColors
+                && last.themeColor == snapshot.themeColor) {
+            return false;
+        }
+        last = snapshot;
+
+        float rowHeight = getRowHeight();
+        for (Row row : rows.values()) {
+            row.leaving = true;
+        }
+        if (snapshot.arraylistVisible) {
+            for (int i = 0; i < snapshot.moduleNames.length; i++) {
+                String name = snapshot.moduleNames[i];
+                Row row = rows.get(name);
+                if (row == null) {
+                    row = new Row();
+                    row.textWidth = textPaint.measureText(name);
+                    row.y = i * rowHeight;
+                    rows.put(name, row);
+                }
+                row.leaving = false;
+                row.color = snapshot.moduleColors[i];
+                row.targetY = i * rowHeight;
+            }
+        }
+        accentColor = snapshot.themeColor;
+        return true;
+    }
+
+    @Override
+    public boolean onStep(float dt) {
+        boolean animating = false;
+        float factor = 1f - (float) Math.exp(-RATE * dt);
+        Iterator<Row> iterator = rows.values().iterator();
+        while (iterator.hasNext()) {
+            Row row = iterator.next();
+            float targetPresence = row.leaving ? 0f : 1f;
+            row.presence += (targetPresence - row.presence) * factor;
+            row.y += (row.targetY - row.y) * factor;
+
+            if (row.leaving && row.presence < SETTLE_EPSILON) {
+                iterator.remove();
+                animating = true;
+                continue;
+            }
+            if (Math.abs(targetPresence - row.presence) > SETTLE_EPSILON || Math.abs(row.targetY - row.y) > 0.5f) {
+                animating = true;
+            } else {
+                row.presence = targetPresence;
+                row.y = row.targetY;
+            }
+        }
+        return animating;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        float rowHeight = getRowHeight();
+        float right = getWidth();
+        float padding = getHorizontalPadding();
+        float slide = 20f * density;
+        float baselineOffset = (rowHeight - textPaint.ascent() - textPaint.descent()) / 2f;
+
+        for (Map.Entry<String, Row> entry : rows.entrySet()) {
+            Row row = entry.getValue();
+            int alpha = Math.round(255 * row.presence);
+            if (alpha <= 0) continue;
+
+            float offsetX = (1f - row.presence) * slide;
+            rect.set(right - row.textWidth - padding * 2f + offsetX, row.y, right + offsetX, row.y + rowHeight);
+
+            fillPaint.setColor(0xB2000000);
+            fillPaint.setAlpha(Math.round(0xB2 * row.presence));
+            canvas.drawRect(rect, fillPaint);
+
+            fillPaint.setColor(accentColor);
+            fillPaint.setAlpha(alpha);
+            canvas.drawRect(rect.right - 2f * density, rect.top, rect.right, rect.bottom, fillPaint);
+
+            textPaint.setColor(row.color);
+            textPaint.setAlpha(alpha);
+            canvas.drawText(entry.getKey(), rect.left + padding, rect.top + baselineOffset, textPaint);
+        }
+    }
+
+    private float getRowHeight() {
+        return -textPaint.ascent() + textPaint.descent() + 4f * density;
+    }
+
+    private float getHorizontalPadding() {
+        return 6f * density;
+    }
+}
@@ -0,0 +1,80 @@
+package com.phoenix.gui.ui.hud;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import com.phoenix.gui.ui.NumberFormatter;
+
+// 左上角的帧率和最差帧耗时，数字变得再快也只按 4Hz 重画
+public class FrameStatsWidget implements HudWidget {
+
+    private final float density;
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private int fps = -1;
+    private float worstFrameMs = -1f;
+    private boolean idle = false;
+    private final NumberFormatter.Label label = new NumberFormatter.Label(24);
+    private float labelWidth;
+
+    public FrameStatsWidget(float density, float scaledDensity) {
+        this.density = density;
+        textPaint.setTypeface(Typeface.MONOSPACE);
+        textPaint.setTextSize(10f * scaledDensity);
+        fillPaint.setColor(0x99000000);
+    }
+
+    @Override
+    public int getAnchor() {
+        return ANCHOR_TOP_LEFT;
+    }
+
+    @Override
+    public int getWidth() {
+        return fps < 0 ? 0 : (int) Math.ceil(labelWidth + getPadding() * 2f);
+    }
+
+    @Override
+    public int getHeight() {
+        return fps < 0 ? 0 : (int) Math.ceil(-textPaint.ascent() + textPaint.descent() + getPadding());
+    }
+
+    @Override
+    public float getMaxUpdateRate() {
+        return 4f;
+    }
+
+    @Override
+    public boolean onSnapshot(HudSnapshot snapshot) {
+        // 主题变了即使数字没变也要重画
+        boolean colorChanged = textPaint.getColor() != snapshot.textSecondary;
+        textPaint.setColor(snapshot.textSecondary);
+        if (snapshot.fps == fps && snapshot.worstFrameMs == worstFrameMs && snapshot.statsIdle == idle) {
+            return colorChanged;
+        }
+
+        fps = snapshot.fps;
+        worstFrameMs = snapshot.worstFrameMs;
+        idle = snapshot.statsIdle;
+        label.clear();
+        if (idle) {
+            label.append("-- FPS  idle");
+        } else {
+            label.appendInt(fps).append(" FPS  ").appendFixed(worstFrameMs, 1).append("ms");
+        }
+        labelWidth = label.measure(textPaint);
+        return true;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        float padding = getPadding();
+        canvas.drawRect(0f, 0f, getWidth(), getHeight(), fillPaint);
+        label.draw(canvas, padding, padding / 2f - textPaint.ascent(), textPaint);
+    }
+
+    private float getPadding() {
+        return 4f * density;
+    }
+}
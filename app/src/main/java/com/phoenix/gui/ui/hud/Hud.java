@@ -0,0 +1,167 @@
+package com.phoenix.gui.ui.hud;
+
+import android.util.DisplayMetrics;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import com.phoenix.gui.config.ConfigManager;
+import com.phoenix.gui.ui.ArraylistView;
+import com.phoenix.gui.ui.ThemeManager;
+import com.phoenix.gui.ui.dynamic.DynamicIslandManager;
+import com.phoenix.gui.ui.dynamic.DynamicIslandWindow;
+import com.phoenix.gui.ui.perf.ActivityTracker;
+import com.phoenix.gui.ui.perf.FrameMonitor;
+import com.phoenix.gui.ui.perf.ProcessStatsSampler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// HUD 模式：列表、灵动岛和帧率改由独立渲染线程画在 SurfaceView 上
+// 主线程只在状态变化时抓一份快照发布过去，原来的视图留着当数据源但不显示
+// 新元素实现 HudWidget 后 addWidget 即可，不用再单独建视图树
+public class Hud {
+
+    // 内置控件和外部注册的控件，跨 attach/detach 保留
+    private static final List<HudWidget> widgets = new ArrayList<>();
+    private static boolean builtinsAdded = false;
+
+    private static HudSurfaceView surfaceView;
+    private static ArraylistView arraylistView;
+    private static DynamicIslandWindow island;
+    private static DynamicIslandManager observedManager;
+    private static DynamicIslandManager.TaskItem observedTask;
+    private static HudSnapshot lastSnapshot;
+
+    private static final ArraylistView.OnModulesChangeListener modulesListener = Hud::publish;
+    private static final ThemeManager.OnThemeColorChangeListener themeListener = color -> publish();
+    private static final ActivityTracker.OnActiveChangeListener activeListener = active -> publish();
+    private static final FrameMonitor.OnFrameStatsListener frameListener = (fps, worstFrameMs, jankyFrames) -> publish();
+    private static final ProcessStatsSampler.OnProcessStatsListener statsListener =
+            (cpuPercent, heapUsed, heapMax, nativeHeap, gcCount) -> publish();
+    // 进度这类高频变化走任务自己的监听，只盯排在最前面的那个
+    private static final DynamicIslandManager.TaskItem.OnChangeListener taskListener = task -> publish();
+
+    private static final DynamicIslandManager.StateChangeListener islandListener = new DynamicIslandManager.StateChangeListener() {
+        @Override
+        public void onTasksChanged() {
+            observeTask(HudSnapshot.getPrimaryTask(observedManager));
+            publish();
+        }
+
+        @Override
+        public void onExpandedStateChanged(boolean isExpanded) {
+            publish();
+        }
+
+        @Override
+        public void onConfigChanged(float scale, String persistentText) {
+            publish();
+        }
+    };
+
+    public static boolean isAttached() {
+        return surfaceView != null;
+    }
+
+    public static void attach(FrameLayout container, ArraylistView arraylist, DynamicIslandWindow islandWindow) {
+        if (container == null) return;
+
+        if (!builtinsAdded) {
+            DisplayMetrics metrics = container.getResources().getDisplayMetrics();
+            widgets.add(new ArraylistWidget(metrics.density, metrics.scaledDensity));
+            widgets.add(new IslandWidget(metrics.density, metrics.scaledDensity));
+            widgets.add(new FrameStatsWidget(metrics.density, metrics.scaledDensity));
+            widgets.add(new ProcessStatsWidget(metrics.density, metrics.scaledDensity));
+            builtinsAdded = true;
+        }
+
+        if (surfaceView == null) {
+            surfaceView = new HudSurfaceView(container.getContext());
+            for (HudWidget widget : widgets) {
+                surfaceView.addWidget(widget);
+            }
+            container.addView(surfaceView, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT
+            ));
+            ThemeManager.addListener(themeListener);
+            ActivityTracker.addListener(activeListener);
+            FrameMonitor.addListener(frameListener);
+            ProcessStatsSampler.setSampleIntervalMs(ConfigManager.getStatsSampleIntervalMs());
+            ProcessStatsSampler.addListener(statsListener);
+        }
+
+        // 悬浮窗重新显示时列表和灵动岛可能换了实例
+        if (arraylistView != arraylist) {
+            if (arraylistView != null) arraylistView.setOnModulesChangeListener(null);
+            arraylistView = arraylist;
+            if (arraylistView != null) arraylistView.setOnModulesChangeListener(modulesListener);
+        }
+        island = islandWindow;
+        observeManager(islandWindow != null ? islandWindow.getManager() : null);
+
+        publish();
+    }
+
+    public static void detach() {
+        if (surfaceView == null) return;
+
+        ThemeManager.removeListener(themeListener);
+        ActivityTracker.removeListener(activeListener);
+        FrameMonitor.removeListener(frameListener);
+        ProcessStatsSampler.removeListener(statsListener);
+        if (arraylistView != null) {
+            arraylistView.setOnModulesChangeListener(null);
+            arraylistView = null;
+        }
+        observeManager(null);
+        island = null;
+
+        if (surfaceView.getParent() != null) {
+            ((ViewGroup) surfaceView.getParent()).removeView(surfaceView);
+        }
+        surfaceView = null;
+        lastSnapshot = null;
+    }
+
+    // 以下都只能在主线程调用
+    public static void addWidget(HudWidget widget) {
+        if (widgets.contains(widget)) return;
+        widgets.add(widget);
+        if (surfaceView != null) {
+            surfaceView.addWidget(widget);
+            publish();
+        }
+    }
+
+    public static void removeWidget(HudWidget widget) {
+        if (!widgets.remove(widget)) return;
+        if (surfaceView != null) {
+            surfaceView.removeWidget(widget);
+        }
+    }
+
+    public static void publish() {
+        if (surfaceView == null) return;
+        lastSnapshot = HudSnapshot.capture(arraylistView, island, lastSnapshot);
+        surfaceView.publish(lastSnapshot);
+    }
+
+    private static void observeManager(DynamicIslandManager manager) {
+        if (observedManager == manager) return;
+        if (observedManager != null) observedManager.removeListener(islandListener);
+        observedManager = manager;
+        if (observedManager != null) observedManager.addListener(islandListener);
+        observeTask(HudSnapshot.getPrimaryTask(observedManager));
+    }
+
+    private static void observeTask(DynamicIslandManager.TaskItem task) {
+        if (observedTask == task) return;
+        if (observedTask != null) observedTask.removeChangeListener(taskListener);
+        observedTask = task;
+        if (observedTask != null) observedTask.addChangeListener(taskListener);
+    }
+
+    private Hud() {
+
+    }
+}
@@ -0,0 +1,310 @@
+package com.phoenix.gui.ui.hud;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.Choreographer;
+import android.view.SurfaceHolder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// HUD 的渲染线程：自己的 Looper 和 Choreographer，只读主线程发布的快照，不碰任何 View
+// 所有控件在这里统一布局，每帧只锁脏区域、只重画和脏区域相交的控件
+class HudHost implements Choreographer.FrameCallback {
+
+    // 掉帧时单步最多推进 50ms，避免一下跳到终点
+    private static final float MAX_STEP_SECONDS = 0.05f;
+    private static final float MARGIN_DP = 8f;
+    // 帧时间有抖动，限速判断留 2ms 余量，60Hz 的控件在 60Hz 屏上不会被隔帧跳过
+    private static final long RATE_SLACK_NANOS = 2_000_000L;
+
+    private static final class Slot {
+        final HudWidget widget;
+        final Rect bounds = new Rect();
+        final Rect newBounds = new Rect();
+        boolean dirty = true;
+        long lastDrawNanos;
+
+        Slot(HudWidget widget) {
+            this.widget = widget;
+        }
+    }
+
+    private final SurfaceHolder holder;
+    private final float density;
+
+    // 主线程销毁 surface 时要等当前帧画完
+    private final Object surfaceLock = new Object();
+    private boolean surfaceValid = false;
+
+    // 主线程增删，渲染线程遍历
+    private final List<Slot> slots = new CopyOnWriteArrayList<>();
+    private volatile boolean fullRedraw = true;
+    private volatile HudSnapshot pending;
+
+    // 以下只在主线程读写
+    private HandlerThread thread;
+    private Handler handler;
+
+    // 以下只在渲染线程读写
+    private Choreographer choreographer;
+    private long lastFrameNanos = 0L;
+    private HudSnapshot current;
+    private int width;
+    private int height;
+    private final Rect dirtyRect = new Rect();
+    private final int[] anchorOffsets = new int[6];
+
+    private final Runnable frameRequest = this::requestFrame;
+
+    HudHost(SurfaceHolder holder, float density) {
+        this.holder = holder;
+        this.density = density;
+    }
+
+    void addWidget(HudWidget widget) {
+        for (Slot slot : slots) {
+            if (slot.widget == widget) return;
+        }
+        slots.add(new Slot(widget));
+        wake();
+    }
+
+    // 移除后它原来占的区域需要擦掉，直接整屏重画一次
+    void removeWidget(HudWidget widget) {
+        for (Slot slot : slots) {
+            if (slot.widget == widget) {
+                slots.remove(slot);
+                fullRedraw = true;
+                wake();
+                return;
+            }
+        }
+    }
+
+    void start() {
+        synchronized (surfaceLock) {
+            surfaceValid = true;
+        }
+        fullRedraw = true;
+        if (thread != null) return;
+
+        thread = new HandlerThread("PhoenixHud", Process.THREAD_PRIORITY_DISPLAY);
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        handler.post(() -> {
+            choreographer = Choreographer.getInstance();
+            lastFrameNanos = 0L;
+            requestFrame();
+        });
+    }
+
+    void resize(int newWidth, int newHeight) {
+        if (handler == null) return;
+        handler.post(() -> {
+            width = newWidth;
+            height = newHeight;
+            fullRedraw = true;
+            requestFrame();
+        });
+    }
+
+    // 主线程调用，只换引用，渲染线程下一帧取最新的一份
+    void publish(HudSnapshot snapshot) {
+        pending = snapshot;
+        wake();
+    }
+
+    // 返回之后渲染线程不会再碰 surface
+    void stop() {
+        synchronized (surfaceLock) {
+            surfaceValid = false;
+        }
+        if (thread == null) return;
+
+        handler.post(() -> {
+            if (choreographer != null) {
+                choreographer.removeFrameCallback(this);
+            }
+        });
+        thread.quitSafely();
+        thread = null;
+        handler = null;
+    }
+
+    private void wake() {
+        if (handler != null) {
+            handler.post(frameRequest);
+        }
+    }
+
+    private void requestFrame() {
+        if (choreographer == null) return;
+        // 可能已经挂了一个限速用的延迟帧，换成下一帧
+        choreographer.removeFrameCallback(this);
+        choreographer.postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        float dt = lastFrameNanos == 0L ? 0f
+                : Math.min((frameTimeNanos - lastFrameNanos) / 1_000_000_000f, MAX_STEP_SECONDS);
+        lastFrameNanos = frameTimeNanos;
+
+        HudSnapshot snapshot = pending;
+        boolean newSnapshot = snapshot != current;
+        current = snapshot;
+
+        boolean animating = false;
+        for (Slot slot : slots) {
+            HudWidget widget = slot.widget;
+            if (newSnapshot && snapshot != null && widget.onSnapshot(snapshot)) {
+                slot.dirty = true;
+            }
+            if (widget.onStep(dt)) {
+                slot.dirty = true;
+                animating = true;
+            }
+        }
+
+        layout(frameTimeNanos);
+        long nextDueNanos = collectDirty(frameTimeNanos);
+        draw(frameTimeNanos);
+
+        // 有动画就下一帧接着跑；只剩被限速的控件时按它的间隔延迟唤醒；都没有就停下
+        if (animating) {
+            requestFrame();
+        } else {
+            lastFrameNanos = 0L;
+            if (nextDueNanos != Long.MAX_VALUE) {
+                // 帧时间和 System.nanoTime 同一个时基
+                long delayMs = Math.max(1L, (nextDueNanos - System.nanoTime()) / 1_000_000L);
+                choreographer.postFrameCallbackDelayed(this, delayMs);
+            }
+        }
+    }
+
+    // 同一锚点的控件依次排开，顶部的往下排，底部的往上排
+    // 控件自己的尺寸变化算内容变化，还没到它的限速间隔时先按上次画出来的尺寸排，到点再生效
+    private void layout(long now) {
+        boolean full = fullRedraw;
+        int margin = Math.round(MARGIN_DP * density);
+        for (int i = 0; i < anchorOffsets.length; i++) {
+            anchorOffsets[i] = margin;
+        }
+
+        for (Slot slot : slots) {
+            HudWidget widget = slot.widget;
+            int anchor = widget.getAnchor();
+            int w = Math.max(0, widget.getWidth());
+            int h = Math.max(0, widget.getHeight());
+            if (!full && (w != slot.bounds.width() || h != slot.bounds.height()) && !isDue(slot, now)) {
+                w = slot.bounds.width();
+                h = slot.bounds.height();
+                slot.dirty = true;
+            }
+
+            int left;
+            int column = anchor % 3;
+            if (column == 0) {
+                left = margin;
+            } else if (column == 1) {
+                left = (width - w) / 2;
+            } else {
+                left = width - margin - w;
+            }
+
+            int top;
+            if (anchor < HudWidget.ANCHOR_BOTTOM_LEFT) {
+                top = anchorOffsets[anchor];
+            } else {
+                top = height - anchorOffsets[anchor] - h;
+            }
+            if (h > 0) {
+                anchorOffsets[anchor] += h + margin;
+            }
+
+            slot.newBounds.set(left, top, left + w, top + h);
+        }
+    }
+
+    // 汇总这一帧要重画的区域，返回被限速推迟的控件最早什么时候可以画
+    private long collectDirty(long now) {
+        dirtyRect.setEmpty();
+        long nextDueNanos = Long.MAX_VALUE;
+        boolean full = fullRedraw;
+
+        for (Slot slot : slots) {
+            boolean moved = !slot.newBounds.equals(slot.bounds);
+            if (!full && !moved && !slot.dirty) continue;
+
+            // 被别的控件挤动了位置必须立即画，否则会重叠；内容和自身尺寸变化受限速约束，尺寸已在 layout 里推迟
+            if (!full && !moved && !isDue(slot, now)) {
+                nextDueNanos = Math.min(nextDueNanos, slot.lastDrawNanos + getInterval(slot) - RATE_SLACK_NANOS);
+                continue;
+            }
+
+            dirtyRect.union(slot.bounds);
+            dirtyRect.union(slot.newBounds);
+            slot.bounds.set(slot.newBounds);
+        }
+
+        if (full) {
+            dirtyRect.set(0, 0, width, height);
+        }
+        return nextDueNanos;
+    }
+
+    private static long getInterval(Slot slot) {
+        return (long) (1_000_000_000L / Math.max(0.1f, slot.widget.getMaxUpdateRate()));
+    }
+
+    private static boolean isDue(Slot slot, long now) {
+        return now - slot.lastDrawNanos >= getInterval(slot) - RATE_SLACK_NANOS;
+    }
+
+    private void draw(long now) {
+        synchronized (surfaceLock) {
+            if (!surfaceValid || width <= 0 || height <= 0 || dirtyRect.isEmpty()) return;
+            if (!dirtyRect.intersect(0, 0, width, height)) return;
+
+            Canvas canvas = null;
+            try {
+                // 软件画布才支持只锁一部分，锁完 dirtyRect 可能被系统扩大
+                canvas = holder.lockCanvas(dirtyRect);
+                if (canvas == null) return;
+                fullRedraw = false;
+
+                canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                for (Slot slot : slots) {
+                    Rect bounds = slot.bounds;
+                    if (bounds.isEmpty() || !Rect.intersects(bounds, dirtyRect)) continue;
+
+                    canvas.save();
+                    canvas.translate(bounds.left, bounds.top);
+                    canvas.clipRect(0, 0, bounds.width(), bounds.height());
+                    slot.widget.draw(canvas);
+                    canvas.restore();
+
+                    slot.dirty = false;
+                    slot.lastDrawNanos = now;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                if (canvas != null) {
+                    try {
+                        holder.unlockCanvasAndPost(canvas);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+}
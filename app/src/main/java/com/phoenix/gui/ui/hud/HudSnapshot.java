@@ -0,0 +1,125 @@
+package com.phoenix.gui.ui.hud;
+
+import android.view.View;
+
+import com.phoenix.gui.ui.ArraylistModule;
+import com.phoenix.gui.ui.ArraylistView;
+import com.phoenix.gui.ui.ThemeManager;
+import com.phoenix.gui.ui.dynamic.DynamicIslandManager;
+import com.phoenix.gui.ui.dynamic.DynamicIslandWindow;
+import com.phoenix.gui.ui.perf.ActivityTracker;
+import com.phoenix.gui.ui.perf.FrameMonitor;
+import com.phoenix.gui.ui.perf.ProcessStatsSampler;
+
+import java.util.List;
+
+// 主线程发布给渲染线程的一份界面状态，构造完成后不再修改，各个 HudWidget 直接读字段
+public final class HudSnapshot {
+
+    public static final int TASK_NONE = 0;
+    public static final int TASK_SWITCH = 1;
+    public static final int TASK_PROGRESS = 2;
+
+    public final boolean arraylistVisible;
+    public final String[] moduleNames;
+    public final int[] moduleColors;
+
+    public final boolean islandVisible;
+    public final float islandScale;
+    public final String islandText;
+    public final int taskType;
+    public final String taskText;
+    public final boolean taskSwitchState;
+    public final float taskProgress;
+
+    // 界面空闲时帧统计和进程采样都挂起，下面的数字停在最后一次
+    public final boolean statsIdle;
+    public final int fps;
+    public final float worstFrameMs;
+
+    public final float cpuPercent;
+    public final long heapUsed;
+    public final long heapMax;
+    public final long nativeHeap;
+    public final long gcCount;
+
+    public final int themeColor;
+    public final int textPrimary;
+    public final int textSecondary;
+    public final int stateDisabled;
+
+    // 只能在主线程调用，这里会读各个视图和管理器的状态
+    private HudSnapshot(ArraylistView arraylistView, DynamicIslandWindow island, HudSnapshot previous) {
+        List<ArraylistModule> modules = arraylistView != null ? arraylistView.getModules() : null;
+        int count = modules != null ? modules.size() : 0;
+        arraylistVisible = arraylistView != null && arraylistView.getVisibility() == View.VISIBLE;
+        // 进度和统计每次发布都会抓快照，列表没变就沿用上一份数组，控件也靠引用判断列表有没有变
+        if (previous != null && sameModules(previous, modules, count)) {
+            moduleNames = previous.moduleNames;
+            moduleColors = previous.moduleColors;
+        } else {
+            moduleNames = new String[count];
+            moduleColors = new int[count];
+            for (int i = 0; i < count; i++) {
+                ArraylistModule module = modules.get(i);
+                moduleNames[i] = module.getName();
+                moduleColors[i] = module.getColor();
+            }
+        }
+
+        DynamicIslandManager manager = island != null && island.isShowing() ? island.getManager() : null;
+        islandVisible = manager != null;
+        islandScale = manager != null ? manager.getScale() : 1f;
+        islandText = manager != null ? manager.getPersistentText() : "";
+
+        DynamicIslandManager.TaskItem task = getPrimaryTask(manager);
+        if (task == null) {
+            taskType = TASK_NONE;
+            taskText = null;
+            taskSwitchState = false;
+            taskProgress = 0f;
+        } else {
+            taskType = task.type == DynamicIslandManager.TaskItem.Type.SWITCH ? TASK_SWITCH : TASK_PROGRESS;
+            taskText = task.text;
+            taskSwitchState = task.switchState;
+            taskProgress = task.displayProgress;
+        }
+
+        statsIdle = !ActivityTracker.isActive();
+        fps = FrameMonitor.getFps();
+        worstFrameMs = FrameMonitor.getWindowWorstFrameMs();
+
+        cpuPercent = ProcessStatsSampler.getCpuPercent();
+        heapUsed = ProcessStatsSampler.getHeapUsed();
+        heapMax = ProcessStatsSampler.getHeapMax();
+        nativeHeap = ProcessStatsSampler.getNativeHeap();
+        gcCount = ProcessStatsSampler.getGcCount();
+
+        themeColor = ThemeManager.getThemeColor();
+        textPrimary = ThemeManager.getTextPrimary();
+        textSecondary = ThemeManager.getTextSecondary();
+        stateDisabled = ThemeManager.getStateDisabled();
+    }
+
+    public static HudSnapshot capture(ArraylistView arraylistView, DynamicIslandWindow island, HudSnapshot previous) {
+        return new HudSnapshot(arraylistView, island, previous);
+    }
+
+    private static boolean sameModules(HudSnapshot previous, List<ArraylistModule> modules, int count) {
+        if (previous.moduleNames.length != count) return false;
+        for (int i = 0; i < count; i++) {
+            ArraylistModule module = modules.get(i);
+            if (!previous.moduleNames[i].equals(module.getName()) || previous.moduleColors[i] != module.getColor()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // HUD 只画排在最前面的一个任务
+    static DynamicIslandManager.TaskItem getPrimaryTask(DynamicIslandManager manager) {
+        if (manager == null) return null;
+        List<DynamicIslandManager.TaskItem> tasks = manager.getVisibleTasks();
+        return tasks.isEmpty() ? null : tasks.get(0);
+    }
+}
@@ -0,0 +1,51 @@
+package com.phoenix.gui.ui.hud;
+
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.util.DisplayMetrics;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import androidx.annotation.NonNull;
+
+// 透明的 HUD 画布，叠在所有界面之上，只显示不接收触摸
+public class HudSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+
+    private final HudHost host;
+
+    public HudSurfaceView(Context context) {
+        super(context);
+        setZOrderOnTop(true);
+        getHolder().setFormat(PixelFormat.TRANSLUCENT);
+        getHolder().addCallback(this);
+
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        host = new HudHost(getHolder(), metrics.density);
+    }
+
+    public void publish(HudSnapshot snapshot) {
+        host.publish(snapshot);
+    }
+
+    public void addWidget(HudWidget widget) {
+        host.addWidget(widget);
+    }
+
+    public void removeWidget(HudWidget widget) {
+        host.removeWidget(widget);
+    }
+
+    @Override
+    public void surfaceCreated(@NonNull SurfaceHolder holder) {
+        host.start();
+    }
+
+    @Override
+    public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
+        host.resize(width, height);
+    }
+
+    @Override
+    public void surfaceDestroyed(@NonNull SurfaceHolder holder) {
+        host.stop();
+    }
+}
@@ -0,0 +1,37 @@
+package com.phoenix.gui.ui.hud;
+
+import android.graphics.Canvas;
+
+// HUD 上的一个轻量元素，由 HudHost 统一布局，在渲染线程上一次性画完所有脏的元素
+public interface HudWidget {
+
+    int ANCHOR_TOP_LEFT = 0;
+    int ANCHOR_TOP_CENTER = 1;
+    int ANCHOR_TOP_RIGHT = 2;
+    int ANCHOR_BOTTOM_LEFT = 3;
+    int ANCHOR_BOTTOM_CENTER = 4;
+    int ANCHOR_BOTTOM_RIGHT = 5;
+
+    int getAnchor();
+
+    // 当前尺寸，像素，动画期间可以逐帧变化
+    int getWidth();
+
+    int getHeight();
+
+    // 每秒最多重画几次，统计类 4Hz 就够，动画类给 60
+    float getMaxUpdateRate();
+
+    // 以下都在渲染线程调用
+
+    // 收到新快照，返回是否需要重画
+    boolean onSnapshot(HudSnapshot snapshot);
+
+    // 推进动画，dt 单位秒，返回是否还在动
+    default boolean onStep(float dt) {
+        return false;
+    }
+
+    // 原点在控件左上角，画布已经裁剪到控件范围
+    void draw(Canvas canvas);
+}
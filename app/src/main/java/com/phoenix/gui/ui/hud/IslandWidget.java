@@ -0,0 +1,165 @@
+package com.phoenix.gui.ui.hud;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.text.TextUtils;
+
+// 顶部居中的胶囊：没有任务时显示用户名，有任务时显示最前面的开关或进度
+public class IslandWidget implements HudWidget {
+
+    private static final float RATE = 12f;
+    private static final float PROGRESS_RATE = 10f;
+    private static final float SETTLE_EPSILON = 0.005f;
+
+    private final float density;
+    private final float scaledDensity;
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rect = new RectF();
+
+    private HudSnapshot snapshot;
+    private String label = "";
+    private float width = -1f;
+    private float targetWidth;
+    private float alpha;
+    private float targetAlpha;
+    private float progress;
+
+    public IslandWidget(float density, float scaledDensity) {
+        this.density = density;
+        this.scaledDensity = scaledDensity;
+        textPaint.setTypeface(Typeface.DEFAULT_BOLD);
+    }
+
+    @Override
+    public int getAnchor() {
+        return ANCHOR_TOP_CENTER;
+    }
+
+    @Override
+    public int getWidth() {
+        return alpha < SETTLE_EPSILON ? 0 : (int) Math.ceil(width);
+    }
+
+    @Override
+    public int getHeight() {
+        return snapshot == null || alpha < SETTLE_EPSILON ? 0 : (int) Math.ceil(getIslandHeight());
+    }
+
+    @Override
+    public float getMaxUpdateRate() {
+        return 60f;
+    }
+
+    @Override
+    public boolean onSnapshot(HudSnapshot newSnapshot) {
+        if (snapshot != null && !islandChanged(snapshot, newSnapshot)) {
+            return false;
+        }
+        snapshot = newSnapshot;
+        targetAlpha = newSnapshot.islandVisible ? 1f : 0f;
+        textPaint.setTextSize(14f * scaledDensity * newSnapshot.islandScale);
+
+        if (newSnapshot.taskType == HudSnapshot.TASK_NONE) {
+            label = newSnapshot.islandText;
+        } else {
+            label = newSnapshot.taskText != null ? newSnapshot.taskText : "";
+        }
+
+        float islandHeight = getIslandHeight();
+        float labelWidth = textPaint.measureText(label);
+        if (newSnapshot.taskType == HudSnapshot.TASK_SWITCH) {
+            labelWidth += islandHeight * 0.5f;
+        }
+        targetWidth = Math.max(labelWidth + getPadding() * 2f, islandHeight * 2f);
+        if (width < 0f) {
+            width = targetWidth;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onStep(float dt) {
+        if (snapshot == null) return false;
+
+        boolean animating = false;
+        float factor = 1f - (float) Math.exp(-RATE * dt);
+        width += (targetWidth - width) * factor;
+        alpha += (targetAlpha - alpha) * factor;
+        if (Math.abs(targetWidth - width) > 0.5f || Math.abs(targetAlpha - alpha) > SETTLE_EPSILON) {
+            animating = true;
+        } else {
+            width = targetWidth;
+            alpha = targetAlpha;
+        }
+
+        float targetProgress = snapshot.taskType == HudSnapshot.TASK_PROGRESS ? snapshot.taskProgress : 0f;
+        float progressFactor = 1f - (float) Math.exp(-PROGRESS_RATE * dt);
+        progress += (targetProgress - progress) * progressFactor;
+        if (Math.abs(targetProgress - progress) > SETTLE_EPSILON) {
+            animating = true;
+        } else {
+            progress = targetProgress;
+        }
+        return animating;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (snapshot == null) return;
+
+        float islandHeight = getIslandHeight();
+        float radius = islandHeight / 2f;
+        rect.set(0f, 0f, width, islandHeight);
+
+        fillPaint.setColor(0xCC000000);
+        fillPaint.setAlpha(Math.round(0xCC * alpha));
+        canvas.drawRoundRect(rect, radius, radius, fillPaint);
+
+        float textX = getPadding();
+        if (snapshot.taskType == HudSnapshot.TASK_SWITCH) {
+            float dotRadius = islandHeight * 0.15f;
+            fillPaint.setColor(snapshot.taskSwitchState ? snapshot.themeColor : snapshot.stateDisabled);
+            fillPaint.setAlpha(Math.round(255 * alpha));
+            canvas.drawCircle(textX + dotRadius, rect.centerY(), dotRadius, fillPaint);
+            textX += islandHeight * 0.5f;
+        }
+
+        float baseline = rect.centerY() - (textPaint.ascent() + textPaint.descent()) / 2f;
+        textPaint.setColor(snapshot.textPrimary);
+        textPaint.setAlpha(Math.round(255 * alpha));
+        canvas.drawText(label, textX, baseline, textPaint);
+
+        if (snapshot.taskType == HudSnapshot.TASK_PROGRESS) {
+            float barHeight = 3f * density * snapshot.islandScale;
+            fillPaint.setColor(snapshot.themeColor);
+            fillPaint.setAlpha(Math.round(255 * alpha));
+            canvas.drawRect(0f, islandHeight - barHeight,
+                    width * Math.max(0f, Math.min(1f, progress)), islandHeight, fillPaint);
+        }
+    }
+
+    // 帧率和进程统计的发布也会走到这里，只有胶囊用到的字段变了才重画
+    private static boolean islandChanged(HudSnapshot a, HudSnapshot b) {
+        return a.islandVisible != b.islandVisible
+                || a.islandScale != b.islandScale
+                || !TextUtils.equals(a.islandText, b.islandText)
+                || a.taskType != b.taskType
+                || !TextUtils.equals(a.taskText, b.taskText)
+                || a.taskSwitchState != b.taskSwitchState
+                || a.taskProgress != b.taskProgress
+                || a.themeColor != b.themeColor
+                || a.textPrimary != b.textPrimary
+                || a.stateDisabled != b.stateDisabled;
+    }
+
+    private float getIslandHeight() {
+        return 44f * density * (snapshot != null ? snapshot.islandScale : 1f);
+    }
+
+    private float getPadding() {
+        return 16f * density * (snapshot != null ? snapshot.islandScale : 1f);
+    }
+}
@@ -0,0 +1,97 @@
+package com.phoenix.gui.ui.hud;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import com.phoenix.gui.ui.NumberFormatter;
+
+// 左上角帧率下面的进程统计：CPU、Java 堆已用/上限、native 堆、GC 次数
+public class ProcessStatsWidget implements HudWidget {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final float density;
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final NumberFormatter.Label label = new NumberFormatter.Label(64);
+    private float labelWidth;
+
+    private int cpuTenths = -1;
+    private long heapUsedMb = -1L;
+    private long heapMaxMb = -1L;
+    private long nativeHeapMb = -1L;
+    private long gcCount = -1L;
+    private boolean idle = false;
+
+    public ProcessStatsWidget(float density, float scaledDensity) {
+        this.density = density;
+        textPaint.setTypeface(Typeface.MONOSPACE);
+        textPaint.setTextSize(10f * scaledDensity);
+        fillPaint.setColor(0x99000000);
+    }
+
+    @Override
+    public int getAnchor() {
+        return ANCHOR_TOP_LEFT;
+    }
+
+    @Override
+    public int getWidth() {
+        return heapMaxMb <= 0 ? 0 : (int) Math.ceil(labelWidth + getPadding() * 2f);
+    }
+
+    @Override
+    public int getHeight() {
+        return heapMaxMb <= 0 ? 0 : (int) Math.ceil(-textPaint.ascent() + textPaint.descent() + getPadding());
+    }
+
+    @Override
+    public float getMaxUpdateRate() {
+        return 2f;
+    }
+
+    // 按显示精度比较，数字没变就不重画
+    @Override
+    public boolean onSnapshot(HudSnapshot snapshot) {
+        // 主题变了即使数字没变也要重画
+        boolean colorChanged = textPaint.getColor() != snapshot.textSecondary;
+        textPaint.setColor(snapshot.textSecondary);
+
+        int newCpuTenths = Math.round(snapshot.cpuPercent * 10f);
+        long newHeapUsedMb = snapshot.heapUsed / MB;
+        long newHeapMaxMb = snapshot.heapMax / MB;
+        long newNativeHeapMb = snapshot.nativeHeap / MB;
+        if (newCpuTenths == cpuTenths && newHeapUsedMb == heapUsedMb && newHeapMaxMb == heapMaxMb
+                && newNativeHeapMb == nativeHeapMb && snapshot.gcCount == gcCount && snapshot.statsIdle == idle) {
+            return colorChanged;
+        }
+
+        cpuTenths = newCpuTenths;
+        heapUsedMb = newHeapUsedMb;
+        heapMaxMb = newHeapMaxMb;
+        nativeHeapMb = newNativeHeapMb;
+        gcCount = snapshot.gcCount;
+        idle = snapshot.statsIdle;
+
+        label.clear();
+        label.append("CPU ").appendFixed(cpuTenths / 10.0, 1).append('%')
+                .append("  Heap ").appendInt(heapUsedMb).append('/').appendInt(heapMaxMb).append('M')
+                .append("  Native ").appendInt(nativeHeapMb).append('M')
+                .append("  GC ").appendInt(gcCount);
+        // 空闲时数字停在最后一次采样，标出来避免误读
+        if (idle) label.append("  (idle)");
+        labelWidth = label.measure(textPaint);
+        return true;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        float padding = getPadding();
+        canvas.drawRect(0f, 0f, getWidth(), getHeight(), fillPaint);
+        label.draw(canvas, padding, padding / 2f - textPaint.ascent(), textPaint);
+    }
+
+    private float getPadding() {
+        return 4f * density;
+    }
+}
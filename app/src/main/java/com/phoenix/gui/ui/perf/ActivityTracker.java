@@ -0,0 +1,125 @@
+package com.phoenix.gui.ui.perf;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 汇总界面是否需要持续刷新：悬浮层可见、Activity 在前台、最近有交互
+// 任一条件不满足时通知所有常驻动画和定时器挂起，恢复时再接着跑
+public class ActivityTracker {
+
+    public interface OnActiveChangeListener {
+        void onActiveChanged(boolean active);
+    }
+
+    private static final long IDLE_TIMEOUT_MS = 15_000L;
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+    private static final List<OnActiveChangeListener> listeners = new ArrayList<>();
+
+    private static boolean overlayVisible = false;
+    private static boolean resumed = false;
+    private static boolean idle = false;
+    private static boolean active = false;
+
+    private static long lastInteractionTime = 0L;
+    private static boolean idleCheckPosted = false;
+
+    // 只挂一个定时器，到点时再看距离上次交互是否真的超时
+    private static final Runnable idleCheck = new Runnable() {
+        @Override
+        public void run() {
+            idleCheckPosted = false;
+            long remaining = lastInteractionTime + IDLE_TIMEOUT_MS - SystemClock.uptimeMillis();
+            if (remaining > 0) {
+                postIdleCheck(remaining);
+            } else {
+                idle = true;
+                update();
+            }
+        }
+    };
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    public static boolean isIdle() {
+        return idle;
+    }
+
+    public static void setOverlayVisible(boolean visible) {
+        overlayVisible = visible;
+        if (visible) {
+            onInteraction();
+        } else {
+            update();
+        }
+    }
+
+    public static void setResumed(boolean isResumed) {
+        resumed = isResumed;
+        if (isResumed) {
+            onInteraction();
+        } else {
+            update();
+        }
+    }
+
+    // 触摸、模块切换、灵动岛新任务等都算一次交互
+    public static void onInteraction() {
+        lastInteractionTime = SystemClock.uptimeMillis();
+        if (idle) {
+            idle = false;
+            update();
+        } else if (!active) {
+            update();
+        }
+        if (active && !idleCheckPosted) {
+            postIdleCheck(IDLE_TIMEOUT_MS);
+        }
+    }
+
+    public static void addListener(OnActiveChangeListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public static void removeListener(OnActiveChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private static void postIdleCheck(long delay) {
+        idleCheckPosted = true;
+        handler.postDelayed(idleCheck, delay);
+    }
+
+    private static void update() {
+        boolean newActive = overlayVisible && resumed && !idle;
+        if (newActive == active) return;
+        active = newActive;
+
+        // 不活跃时空闲计时也不需要了，避免后台还有唤醒
+        if (!active) {
+            handler.removeCallbacks(idleCheck);
+            idleCheckPosted = false;
+        } else if (!idleCheckPosted) {
+            postIdleCheck(IDLE_TIMEOUT_MS);
+        }
+
+        FrameMonitor.setSuspended(!active);
+
+        Object[] snapshot = listeners.toArray();
+        for (Object listener : snapshot) {
+            ((OnActiveChangeListener) listener).onActiveChanged(active);
+        }
+    }
+
+    private ActivityTracker() {
+
+    }
+}
@@ -0,0 +1,233 @@
+package com.phoenix.gui.ui.perf;
+
+import android.content.Context;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.WindowManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FrameMonitor {
+
+    public interface OnFrameStatsListener {
+        void onFrameStats(int fps, float worstFrameMs, int jankyFrames);
+    }
+
+    // 0.5ms 一个桶，覆盖 0 - 100ms，最后一个桶存放所有更慢的帧
+    private static final float BUCKET_WIDTH_MS = 0.5f;
+    private static final int BUCKET_COUNT = 200;
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+    // 超过 1.5 个刷新周期即视为掉帧
+    private static final float JANK_THRESHOLD = 1.5f;
+
+    private static final int[] histogram = new int[BUCKET_COUNT];
+    private static long totalFrames = 0;
+    private static long totalJankyFrames = 0;
+    private static long maxFrameNanos = 0;
+
+    private static int windowFrames = 0;
+    private static int windowJankyFrames = 0;
+    private static long windowWorstNanos = 0;
+    private static long windowStartNanos = 0;
+    private static long lastFrameNanos = 0;
+
+    private static int lastFps = 0;
+    private static float lastWorstFrameMs = 0f;
+    private static int lastJankyFrames = 0;
+
+    private static float refreshRate = 60f;
+    private static long jankThresholdNanos = (long) (1_000_000_000L / 60f * JANK_THRESHOLD);
+
+    private static final List<OnFrameStatsListener> listeners = new ArrayList<>();
+    private static boolean running = false;
+    // 界面空闲或不可见时挂起，不再每帧唤醒
+    private static boolean suspended = true;
+
+    private static final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+            if (running && !suspended) {
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    };
+
+    public static void updateRefreshRate(Context context) {
+        try {
+            WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+            Display display = windowManager.getDefaultDisplay();
+            setRefreshRate(display.getRefreshRate());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void setRefreshRate(float hz) {
+        if (hz < 1f) return;
+        refreshRate = hz;
+        jankThresholdNanos = (long) (1_000_000_000L / hz * JANK_THRESHOLD);
+    }
+
+    public static float getRefreshRate() {
+        return refreshRate;
+    }
+
+    // 只有存在监听者时才注册 Choreographer 回调
+    public static void addListener(OnFrameStatsListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        if (!running) {
+            start();
+        }
+    }
+
+    public static void removeListener(OnFrameStatsListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            stop();
+        }
+    }
+
+    public static boolean isRunning() {
+        return running && !suspended;
+    }
+
+    public static void setSuspended(boolean suspend) {
+        if (suspended == suspend) return;
+        suspended = suspend;
+        if (!running) return;
+
+        if (suspend) {
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        } else {
+            // 挂起期间的空档不算成一帧
+            startCallback();
+        }
+    }
+
+    private static void start() {
+        running = true;
+        if (!suspended) {
+            startCallback();
+        }
+    }
+
+    private static void startCallback() {
+        lastFrameNanos = 0;
+        resetWindow(0);
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    private static void stop() {
+        running = false;
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+    }
+
+    private static void onFrame(long frameTimeNanos) {
+        if (lastFrameNanos == 0) {
+            lastFrameNanos = frameTimeNanos;
+            resetWindow(frameTimeNanos);
+            return;
+        }
+
+        long durationNanos = frameTimeNanos - lastFrameNanos;
+        lastFrameNanos = frameTimeNanos;
+        record(durationNanos);
+
+        long windowNanos = frameTimeNanos - windowStartNanos;
+        if (windowNanos >= REPORT_INTERVAL_NANOS) {
+            lastFps = Math.round(windowFrames * 1_000_000_000f / windowNanos);
+            lastWorstFrameMs = windowWorstNanos / 1_000_000f;
+            lastJankyFrames = windowJankyFrames;
+            resetWindow(frameTimeNanos);
+
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).onFrameStats(lastFps, lastWorstFrameMs, lastJankyFrames);
+            }
+        }
+    }
+
+    private static void record(long durationNanos) {
+        int bucket = (int) (durationNanos / 1_000_000f / BUCKET_WIDTH_MS);
+        if (bucket >= BUCKET_COUNT) bucket = BUCKET_COUNT - 1;
+        if (bucket < 0) bucket = 0;
+        histogram[bucket]++;
+        totalFrames++;
+
+        boolean janky = durationNanos > jankThresholdNanos;
+        if (janky) totalJankyFrames++;
+        if (durationNanos > maxFrameNanos) maxFrameNanos = durationNanos;
+
+        windowFrames++;
+        if (janky) windowJankyFrames++;
+        if (durationNanos > windowWorstNanos) windowWorstNanos = durationNanos;
+    }
+
+    private static void resetWindow(long frameTimeNanos) {
+        windowStartNanos = frameTimeNanos;
+        windowFrames = 0;
+        windowJankyFrames = 0;
+        windowWorstNanos = 0;
+    }
+
+    public static int getFps() {
+        return lastFps;
+    }
+
+    public static float getWindowWorstFrameMs() {
+        return lastWorstFrameMs;
+    }
+
+    public static int getWindowJankyFrames() {
+        return lastJankyFrames;
+    }
+
+    public static long getTotalFrames() {
+        return totalFrames;
+    }
+
+    public static long getJankyFrames() {
+        return totalJankyFrames;
+    }
+
+    public static float getWorstFrameMs() {
+        return maxFrameNanos / 1_000_000f;
+    }
+
+    // 返回该百分位所在桶的上界，例如 getPercentileMs(95) 即 p95
+    public static float getPercentileMs(float percentile) {
+        if (totalFrames == 0) return 0f;
+        long target = (long) Math.ceil(totalFrames * Math.max(0f, Math.min(100f, percentile)) / 100f);
+        if (target < 1) target = 1;
+
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += histogram[i];
+            if (count >= target) {
+                if (i == BUCKET_COUNT - 1) return getWorstFrameMs();
+                return (i + 1) * BUCKET_WIDTH_MS;
+            }
+        }
+        return getWorstFrameMs();
+    }
+
+    public static void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            histogram[i] = 0;
+        }
+        totalFrames = 0;
+        totalJankyFrames = 0;
+        maxFrameNanos = 0;
+        lastFps = 0;
+        lastWorstFrameMs = 0f;
+        lastJankyFrames = 0;
+        lastFrameNanos = 0;
+    }
+
+    private FrameMonitor() {
+
+    }
+}
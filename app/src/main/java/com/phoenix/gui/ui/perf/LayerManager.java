@@ -0,0 +1,155 @@
+package com.phoenix.gui.ui.perf;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.content.Context;
+import android.util.DisplayMetrics;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 统一管理离屏层：硬件层只在动画期间持有，软件层按需申请
+// 按 宽 x 高 x 4 字节估算显存/内存占用，超出预算时拒绝新的层
+public class LayerManager {
+
+    private static final class Entry {
+        int layerType;
+        long bytes;
+    }
+
+    private static final int BYTES_PER_PIXEL = 4;
+    // 默认预算为两屏 ARGB_8888
+    private static final float DEFAULT_BUDGET_SCREENS = 2f;
+
+    private static final Map<View, Entry> layers = new HashMap<>();
+    private static long budgetBytes = 1920L * 1080L * BYTES_PER_PIXEL * 2;
+    private static long usedBytes = 0L;
+    private static long peakBytes = 0L;
+    private static int rejectedCount = 0;
+
+    public static void init(Context context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        budgetBytes = (long) (metrics.widthPixels * (long) metrics.heightPixels * BYTES_PER_PIXEL * DEFAULT_BUDGET_SCREENS);
+    }
+
+    public static void setBudgetBytes(long bytes) {
+        budgetBytes = Math.max(0L, bytes);
+    }
+
+    public static long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public static long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public static long getPeakBytes() {
+        return peakBytes;
+    }
+
+    public static int getLayerCount() {
+        return layers.size();
+    }
+
+    public static int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    // 动画开始时提升为硬件层，超预算时保持直接绘制
+    public static boolean promote(View view) {
+        return acquire(view, View.LAYER_TYPE_HARDWARE);
+    }
+
+    // 动画结束后释放硬件层，重复调用无副作用
+    public static void demote(View view) {
+        Entry entry = layers.get(view);
+        if (entry != null && entry.layerType == View.LAYER_TYPE_HARDWARE) {
+            release(view);
+        }
+    }
+
+    // 模糊、阴影等效果需要的常驻软件层，返回 false 时调用方应退回平面效果
+    public static boolean requestSoftwareLayer(View view) {
+        return acquire(view, View.LAYER_TYPE_SOFTWARE);
+    }
+
+    public static void release(View view) {
+        Entry entry = layers.remove(view);
+        if (entry == null) return;
+        usedBytes -= entry.bytes;
+        view.setLayerType(View.LAYER_TYPE_NONE, null);
+    }
+
+    // 动画期间持有硬件层，结束或取消时释放
+    public static void trackAnimator(Animator animator, View view) {
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                promote(view);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                demote(view);
+            }
+        });
+    }
+
+    public static String getUsageSummary() {
+        return String.format(java.util.Locale.US, "layers=%d used=%.1fMB peak=%.1fMB budget=%.1fMB rejected=%d",
+                layers.size(), usedBytes / 1048576f, peakBytes / 1048576f, budgetBytes / 1048576f, rejectedCount);
+    }
+
+    private static boolean acquire(View view, int layerType) {
+        long bytes = estimateBytes(view);
+        Entry entry = layers.get(view);
+        if (entry != null) {
+            // 已经持有同类层时只更新尺寸估算
+            long delta = bytes - entry.bytes;
+            if (entry.layerType == layerType && usedBytes + delta <= budgetBytes) {
+                usedBytes += delta;
+                entry.bytes = bytes;
+                updatePeak();
+                return true;
+            }
+            release(view);
+        }
+
+        if (usedBytes + bytes > budgetBytes) {
+            rejectedCount++;
+            return false;
+        }
+
+        entry = new Entry();
+        entry.layerType = layerType;
+        entry.bytes = bytes;
+        layers.put(view, entry);
+        usedBytes += bytes;
+        updatePeak();
+        view.setLayerType(layerType, null);
+        return true;
+    }
+
+    // 还没布局时按布局参数估算
+    private static long estimateBytes(View view) {
+        int width = Math.max(view.getWidth(), view.getMeasuredWidth());
+        int height = Math.max(view.getHeight(), view.getMeasuredHeight());
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null) {
+            if (params.width > 0) width = Math.max(width, params.width);
+            if (params.height > 0) height = Math.max(height, params.height);
+        }
+        return (long) width * height * BYTES_PER_PIXEL;
+    }
+
+    private static void updatePeak() {
+        if (usedBytes > peakBytes) peakBytes = usedBytes;
+    }
+
+    private LayerManager() {
+
+    }
+}
@@ -0,0 +1,269 @@
+package com.phoenix.gui.ui.perf;
+
+import android.os.Debug;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.system.Os;
+import android.system.OsConstants;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+// 按固定间隔在后台线程采样本进程的 CPU、Java 堆、native 堆和 GC 次数
+// /proc/self/stat 读进复用的字节数组里直接解析数字，采样本身不产生字符串
+public class ProcessStatsSampler {
+
+    public interface OnProcessStatsListener {
+        // 在主线程回调，cpuPercent 是占全部核心的百分比
+        void onProcessStats(float cpuPercent, long heapUsed, long heapMax, long nativeHeap, long gcCount);
+    }
+
+    private static final long DEFAULT_INTERVAL_MS = 1000L;
+    private static final long MIN_INTERVAL_MS = 100L;
+    private static final long MAX_INTERVAL_MS = 10_000L;
+
+    // utime 和 stime 是第 14、15 个字段
+    private static final int FIELD_UTIME = 14;
+    private static final int FIELD_STIME = 15;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final List<OnProcessStatsListener> listeners = new ArrayList<>();
+
+    // 只在采样线程上用；停掉后马上重启时新旧两个线程可能同时存在，文件的开关和读取都加锁
+    private static final byte[] buffer = new byte[1024];
+    private static final Object fileLock = new Object();
+    private static RandomAccessFile statFile;
+    private static int fileGeneration = 0;
+    private static long lastCpuTicks = -1L;
+    private static long lastSampleTime = 0L;
+    private static long clockTicksPerSecond = 100L;
+
+    private static HandlerThread workerThread;
+    private static volatile Handler workerHandler;
+    // 每起一个采样线程加一，旧线程收尾时只关自己打开的文件
+    private static int generation = 0;
+    private static volatile boolean running = false;
+    private static volatile long intervalMs = DEFAULT_INTERVAL_MS;
+
+    // 采样线程写，主线程读
+    private static volatile float cpuPercent = 0f;
+    private static volatile long heapUsed = 0L;
+    private static volatile long heapMax = 0L;
+    private static volatile long nativeHeap = 0L;
+    private static volatile long gcCount = 0L;
+
+    private static final Runnable sampleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!running) return;
+            sample();
+            mainHandler.post(notifyRunnable);
+            // 线程已经被换掉时不再续约
+            Handler handler = workerHandler;
+            if (handler != null && handler.getLooper() == Looper.myLooper()) {
+                handler.postDelayed(this, intervalMs);
+            }
+        }
+    };
+
+    private static final Runnable notifyRunnable = () -> {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onProcessStats(cpuPercent, heapUsed, heapMax, nativeHeap, gcCount);
+        }
+    };
+
+    private static final ActivityTracker.OnActiveChangeListener activeListener = active -> updateRunning();
+
+    public static float getCpuPercent() {
+        return cpuPercent;
+    }
+
+    public static long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public static long getHeapMax() {
+        return heapMax;
+    }
+
+    public static long getNativeHeap() {
+        return nativeHeap;
+    }
+
+    public static long getGcCount() {
+        return gcCount;
+    }
+
+    public static long getSampleIntervalMs() {
+        return intervalMs;
+    }
+
+    public static void setSampleIntervalMs(long interval) {
+        intervalMs = Math.max(MIN_INTERVAL_MS, Math.min(MAX_INTERVAL_MS, interval));
+    }
+
+    // 有订阅者且界面活跃时才采样，空闲后停在最后一次的数值
+    public static void addListener(OnProcessStatsListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        if (listeners.size() == 1) {
+            ActivityTracker.addListener(activeListener);
+        }
+        updateRunning();
+    }
+
+    // 最后一个订阅者走了就关掉文件、结束采样线程
+    public static void removeListener(OnProcessStatsListener listener) {
+        listeners.remove(listener);
+        updateRunning();
+        if (listeners.isEmpty()) {
+            ActivityTracker.removeListener(activeListener);
+            shutdown();
+        }
+    }
+
+    private static void updateRunning() {
+        boolean shouldRun = !listeners.isEmpty() && ActivityTracker.isActive();
+        if (shouldRun == running) return;
+        running = shouldRun;
+
+        if (shouldRun) {
+            if (workerThread == null) {
+                workerThread = new HandlerThread("PhoenixStats", Process.THREAD_PRIORITY_BACKGROUND);
+                workerThread.start();
+                workerHandler = new Handler(workerThread.getLooper());
+                final int token = ++generation;
+                workerHandler.post(() -> openStatFile(token));
+            }
+            workerHandler.post(sampleRunnable);
+        } else if (workerHandler != null) {
+            workerHandler.removeCallbacks(sampleRunnable);
+            // 停下后下一次重新建立 CPU 基线，不把挂起的时间算进去
+            workerHandler.post(() -> {
+                synchronized (fileLock) {
+                    lastCpuTicks = -1L;
+                }
+            });
+        }
+    }
+
+    private static void shutdown() {
+        if (workerThread == null) return;
+        workerHandler.removeCallbacks(sampleRunnable);
+        final int token = generation;
+        workerHandler.post(() -> closeStatFile(token));
+        workerThread.quitSafely();
+        workerThread = null;
+        workerHandler = null;
+    }
+
+    private static void openStatFile(int token) {
+        synchronized (fileLock) {
+            // 旧线程还没来得及关的文件在这里一起关掉
+            closeStatFileLocked();
+            try {
+                clockTicksPerSecond = Math.max(1L, Os.sysconf(OsConstants._SC_CLK_TCK));
+                statFile = new RandomAccessFile("/proc/self/stat", "r");
+                fileGeneration = token;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            lastCpuTicks = -1L;
+        }
+    }
+
+    private static void closeStatFile(int token) {
+        synchronized (fileLock) {
+            if (fileGeneration == token) {
+                closeStatFileLocked();
+            }
+        }
+    }
+
+    private static void closeStatFileLocked() {
+        if (statFile == null) return;
+        try {
+            statFile.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        statFile = null;
+    }
+
+    private static void sample() {
+        synchronized (fileLock) {
+            long now = SystemClock.elapsedRealtime();
+            long ticks = readCpuTicks();
+            if (ticks >= 0 && lastCpuTicks >= 0 && now > lastSampleTime) {
+                float cpuMs = (ticks - lastCpuTicks) * 1000f / clockTicksPerSecond;
+                float percent = cpuMs * 100f / (now - lastSampleTime) / Runtime.getRuntime().availableProcessors();
+                cpuPercent = Math.max(0f, Math.min(100f, percent));
+            }
+            lastCpuTicks = ticks;
+            lastSampleTime = now;
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        heapMax = runtime.maxMemory();
+        nativeHeap = Debug.getNativeHeapAllocatedSize();
+
+        // 系统接口只给字符串，这是采样里唯一的分配
+        try {
+            String count = Debug.getRuntimeStat("art.gc.gc-count");
+            if (count != null) gcCount = Long.parseLong(count);
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // 返回 utime + stime，单位时钟滴答，失败返回 -1
+    private static long readCpuTicks() {
+        if (statFile == null) return -1L;
+        try {
+            statFile.seek(0);
+            int length = statFile.read(buffer, 0, buffer.length);
+            if (length <= 0) return -1L;
+
+            // 进程名里可能有空格和括号，从最后一个 ')' 之后开始数，')' 后面是第 3 个字段
+            int i = length - 1;
+            while (i >= 0 && buffer[i] != ')') i--;
+            if (i < 0) return -1L;
+            i++;
+
+            int field = 2;
+            long total = 0L;
+            while (i < length) {
+                while (i < length && (buffer[i] == ' ' || buffer[i] == '\n')) i++;
+                if (i >= length) break;
+                field++;
+
+                long value = 0L;
+                while (i < length && buffer[i] != ' ' && buffer[i] != '\n') {
+                    byte b = buffer[i];
+                    if (b >= '0' && b <= '9') value = value * 10 + (b - '0');
+                    i++;
+                }
+
+                if (field == FIELD_UTIME) {
+                    total = value;
+                } else if (field == FIELD_STIME) {
+                    return total + value;
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    private ProcessStatsSampler() {
+
+    }
+}
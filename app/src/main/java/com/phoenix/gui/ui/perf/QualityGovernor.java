@@ -0,0 +1,117 @@
+package com.phoenix.gui.ui.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 根据最近的帧耗时逐级关闭昂贵效果，恢复时要求连续多个窗口达标，避免来回抖动
+public class QualityGovernor {
+
+    public interface OnQualityChangeListener {
+        void onQualityChanged(int level);
+    }
+
+    // 级别越高画质越低，每一级包含前面所有的降级
+    public static final int LEVEL_FULL = 0;
+    public static final int LEVEL_NO_SHEEN = 1;
+    public static final int LEVEL_FLAT_SHADOW = 2;
+    public static final int LEVEL_REDUCED_MOTION = 3;
+    private static final int LEVEL_MAX = LEVEL_REDUCED_MOTION;
+
+    // 一个窗口里掉帧超过 10% 或帧率低于刷新率 80% 算超预算
+    private static final float DEGRADE_JANK_RATIO = 0.10f;
+    private static final float DEGRADE_FPS_RATIO = 0.80f;
+    // 掉帧不超过 2% 且帧率接近满帧才算达标
+    private static final float RECOVER_JANK_RATIO = 0.02f;
+    private static final float RECOVER_FPS_RATIO = 0.95f;
+
+    private static final int DEGRADE_WINDOWS = 2;
+    private static final int RECOVER_WINDOWS = 5;
+
+    private static final float REDUCED_MOTION_FACTOR = 0.5f;
+
+    private static int level = LEVEL_FULL;
+    private static int badWindows = 0;
+    private static int goodWindows = 0;
+
+    private static final List<OnQualityChangeListener> listeners = new ArrayList<>();
+
+    private static final FrameMonitor.OnFrameStatsListener statsListener = QualityGovernor::onFrameStats;
+
+    public static int getLevel() {
+        return level;
+    }
+
+    public static boolean isSheenEnabled() {
+        return level < LEVEL_NO_SHEEN;
+    }
+
+    public static boolean isBlurEnabled() {
+        return level < LEVEL_FLAT_SHADOW;
+    }
+
+    // 降到最低档时动画时长减半
+    public static long scaleDuration(long duration) {
+        return level >= LEVEL_REDUCED_MOTION ? (long) (duration * REDUCED_MOTION_FACTOR) : duration;
+    }
+
+    // 有订阅者时才去监听帧统计
+    public static void addListener(OnQualityChangeListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        if (listeners.size() == 1) {
+            badWindows = 0;
+            goodWindows = 0;
+            FrameMonitor.addListener(statsListener);
+        }
+    }
+
+    public static void removeListener(OnQualityChangeListener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            FrameMonitor.removeListener(statsListener);
+        }
+    }
+
+    public static void setLevel(int newLevel) {
+        newLevel = Math.max(LEVEL_FULL, Math.min(LEVEL_MAX, newLevel));
+        badWindows = 0;
+        goodWindows = 0;
+        if (newLevel == level) return;
+
+        level = newLevel;
+
+        // 回调里可能会注销自己，遍历副本
+        Object[] snapshot = listeners.toArray();
+        for (Object listener : snapshot) {
+            ((OnQualityChangeListener) listener).onQualityChanged(level);
+        }
+    }
+
+    private static void onFrameStats(int fps, float worstFrameMs, int jankyFrames) {
+        if (fps <= 0) return;
+
+        float refreshRate = FrameMonitor.getRefreshRate();
+        float jankRatio = jankyFrames / (float) fps;
+
+        if (jankRatio > DEGRADE_JANK_RATIO || fps < refreshRate * DEGRADE_FPS_RATIO) {
+            goodWindows = 0;
+            if (++badWindows >= DEGRADE_WINDOWS && level < LEVEL_MAX) {
+                setLevel(level + 1);
+            }
+        } else if (jankRatio <= RECOVER_JANK_RATIO && fps >= refreshRate * RECOVER_FPS_RATIO) {
+            badWindows = 0;
+            if (++goodWindows >= RECOVER_WINDOWS && level > LEVEL_FULL) {
+                setLevel(level - 1);
+            }
+        } else {
+            // 介于两者之间时保持当前级别
+            badWindows = 0;
+            goodWindows = 0;
+        }
+    }
+
+    private QualityGovernor() {
+
+    }
+}
@@ -0,0 +1,280 @@
+package com.phoenix.gui.ui.perf;
+
+import android.content.Context;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.util.DisplayMetrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// 全局文本宽度缓存，按 (文本, 字体, 字号) 做 LRU
+// 字号是像素值，已经包含了密度和字体缩放；落盘时再记录一份设备信息用来判断是否失效
+public class TextMetricsCache {
+
+    private static final int MAX_ENTRIES = 512;
+
+    private static final String CACHE_FILE = "text_metrics.bin";
+    private static final int FILE_MAGIC = 0x50544D43;
+    private static final int FILE_VERSION = 1;
+    private static final String PROBE_TEXT = "Phoenix 0123456789 测试";
+    private static final float PROBE_SIZE = 100f;
+
+    // 只有这几种字体能落盘，其它字体只留在内存里
+    private static final int TYPEFACE_NULL = 0;
+    private static final int TYPEFACE_DEFAULT = 1;
+    private static final int TYPEFACE_DEFAULT_BOLD = 2;
+
+    private static final class Key {
+        String text;
+        Typeface typeface;
+        float textSize;
+        int hash;
+
+        Key() {
+        }
+
+        Key(String text, Typeface typeface, float textSize) {
+            set(text, typeface, textSize);
+        }
+
+        void set(String text, Typeface typeface, float textSize) {
+            this.text = text;
+            this.typeface = typeface;
+            this.textSize = textSize;
+            int h = text.hashCode();
+            h = 31 * h + (typeface != null ? typeface.hashCode() : 0);
+            h = 31 * h + Float.floatToIntBits(textSize);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash
+                    && textSize == other.textSize
+                    && Objects.equals(typeface, other.typeface)
+                    && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static Map<Key, Float> cache = newCacheMap();
+
+    // 落盘的结果在后台读完之前不查缓存，直接测量
+    private static volatile boolean ready = false;
+    private static boolean loading = false;
+
+    // 查询时复用同一个 key，只有未命中时才创建新对象
+    private static final Key lookupKey = new Key();
+    private static long hitCount = 0;
+    private static long missCount = 0;
+    private static boolean dirty = false;
+
+    public static float measureText(Paint paint, String text) {
+        if (text == null || text.isEmpty()) return 0f;
+        if (!ready) return paint.measureText(text);
+        return measureCached(paint, text);
+    }
+
+    private static synchronized float measureCached(Paint paint, String text) {
+
+        Typeface typeface = paint.getTypeface();
+        float textSize = paint.getTextSize();
+        lookupKey.set(text, typeface, textSize);
+
+        Float width = cache.get(lookupKey);
+        lookupKey.text = null;
+        lookupKey.typeface = null;
+        if (width != null) {
+            hitCount++;
+            return width;
+        }
+
+        missCount++;
+        float measured = paint.measureText(text);
+        cache.put(new Key(text, typeface, textSize), measured);
+        dirty = true;
+        return measured;
+    }
+
+    // 启动时在后台线程读取上次的测量结果，读完再整体换进来，不占主线程的启动时间
+    public static void load(Context context) {
+        synchronized (TextMetricsCache.class) {
+            if (ready || loading) return;
+            loading = true;
+        }
+
+        final Context appContext = context.getApplicationContext();
+        new Thread(() -> {
+            Map<Key, Float> loaded = newCacheMap();
+            readFile(appContext, loaded);
+            synchronized (TextMetricsCache.class) {
+                cache = loaded;
+                loading = false;
+                ready = true;
+            }
+        }, "PhoenixMetricsLoad").start();
+    }
+
+    // 设备密度、字体缩放或系统字体变了就整个丢弃
+    private static void readFile(Context context, Map<Key, Float> target) {
+        File file = new File(context.getCacheDir(), CACHE_FILE);
+        if (!file.exists()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) return;
+
+            DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+            float density = in.readFloat();
+            float scaledDensity = in.readFloat();
+            String fingerprint = in.readUTF();
+            float probeNormal = in.readFloat();
+            float probeBold = in.readFloat();
+
+            if (density != metrics.density || scaledDensity != metrics.scaledDensity
+                    || !fingerprint.equals(Build.FINGERPRINT)
+                    || probeNormal != probe(Typeface.DEFAULT) || probeBold != probe(Typeface.DEFAULT_BOLD)) {
+                file.delete();
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String text = in.readUTF();
+                Typeface typeface = decodeTypeface(in.readByte());
+                float textSize = in.readFloat();
+                float width = in.readFloat();
+                target.put(new Key(text, typeface, textSize), width);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            file.delete();
+        }
+    }
+
+    // 有新条目时在后台线程写盘
+    public static void save(Context context) {
+        final List<Key> keys = new ArrayList<>();
+        final List<Float> widths = new ArrayList<>();
+        synchronized (TextMetricsCache.class) {
+            if (!dirty) return;
+            dirty = false;
+            for (Map.Entry<Key, Float> entry : cache.entrySet()) {
+                if (encodeTypeface(entry.getKey().typeface) < 0) continue;
+                keys.add(entry.getKey());
+                widths.add(entry.getValue());
+            }
+        }
+
+        final File file = new File(context.getCacheDir(), CACHE_FILE);
+        final DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        new Thread(() -> {
+            File temp = new File(file.getPath() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeFloat(metrics.density);
+                out.writeFloat(metrics.scaledDensity);
+                out.writeUTF(Build.FINGERPRINT);
+                out.writeFloat(probe(Typeface.DEFAULT));
+                out.writeFloat(probe(Typeface.DEFAULT_BOLD));
+                out.writeInt(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    Key key = keys.get(i);
+                    out.writeUTF(key.text);
+                    out.writeByte(encodeTypeface(key.typeface));
+                    out.writeFloat(key.textSize);
+                    out.writeFloat(widths.get(i));
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                temp.delete();
+                return;
+            }
+            if (!temp.renameTo(file)) {
+                temp.delete();
+            }
+        }, "PhoenixMetricsSave").start();
+    }
+
+    private static Map<Key, Float> newCacheMap() {
+        return new LinkedHashMap<Key, Float>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Float> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    // 用固定字符串量一次，系统字体换了结果就会不同
+    private static float probe(Typeface typeface) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTypeface(typeface);
+        paint.setTextSize(PROBE_SIZE);
+        return paint.measureText(PROBE_TEXT);
+    }
+
+    private static int encodeTypeface(Typeface typeface) {
+        if (typeface == null) return TYPEFACE_NULL;
+        if (typeface.equals(Typeface.DEFAULT)) return TYPEFACE_DEFAULT;
+        if (typeface.equals(Typeface.DEFAULT_BOLD)) return TYPEFACE_DEFAULT_BOLD;
+        return -1;
+    }
+
+    private static Typeface decodeTypeface(int code) {
+        switch (code) {
+            case TYPEFACE_DEFAULT:
+                return Typeface.DEFAULT;
+            case TYPEFACE_DEFAULT_BOLD:
+                return Typeface.DEFAULT_BOLD;
+            default:
+                return null;
+        }
+    }
+
+    public static synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public static synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public static synchronized float getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0f : hitCount / (float) total;
+    }
+
+    public static synchronized int size() {
+        return cache.size();
+    }
+
+    public static synchronized void clear() {
+        cache.clear();
+        hitCount = 0;
+        missCount = 0;
+        dirty = false;
+    }
+
+    private TextMetricsCache() {
+
+    }
+}
@@ -99,16 +99,24 @@ public class CustomSlider extends View implements ThemeManager.OnThemeColorChang
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        // 拖动过程中只更新内存里的值，松手时才写一次配置
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
             case MotionEvent.ACTION_MOVE:
+                int previousValue = getValue();
                 float newProgress = event.getX() / getWidth();
                 progress = Math.max(0f, Math.min(1f, newProgress));
                 int currentValue = getValue();
-                onValueChanged.onValueChanged(currentValue);
-                ConfigManager.saveModuleConfig(moduleName, configKey, currentValue);
+                if (currentValue != previousValue || event.getAction() == MotionEvent.ACTION_DOWN) {
+                    onValueChanged.onValueChanged(currentValue);
+                }
                 invalidate();
                 return true;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                ConfigManager.saveModuleConfig(moduleName, configKey, getValue());
+                return true;
         }
         return super.onTouchEvent(event);
     }
@@ -1,6 +1,6 @@
 package com.phoenix.gui.ui.widgets;
 
-import android.animation.ValueAnimator;
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -10,9 +10,11 @@ import android.view.View;
 import android.view.animation.DecelerateInterpolator;
 
 import com.phoenix.gui.config.ConfigManager;
+import com.phoenix.gui.ui.AnimationEngine;
 import com.phoenix.gui.ui.ThemeManager;
 
-public class CustomSwitch extends View implements ThemeManager.OnThemeColorChangeListener {
+public class CustomSwitch extends View
+        implements ThemeManager.OnThemeColorChangeListener, AnimationEngine.Target {
     private final String moduleName;
     private final String configKey;
     private final OnStateChangedListener onStateChanged;
@@ -24,7 +26,8 @@ public class CustomSwitch extends View implements ThemeManager.OnThemeColorChang
     private final Paint trackPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final Paint thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final RectF trackRect = new RectF();
-    private ValueAnimator thumbAnimator;
+    private static final int PROP_THUMB = 0;
+    private static final TimeInterpolator THUMB_INTERPOLATOR = new DecelerateInterpolator();
 
     public interface OnStateChangedListener {
         void onStateChanged(boolean enabled);
@@ -70,23 +73,16 @@ public class CustomSwitch extends View implements ThemeManager.OnThemeColorChang
     }
 
     public void setChecked(boolean checked, boolean animate) {
-        if (isChecked == checked && thumbAnimator != null && thumbAnimator.isRunning()) return;
+        if (isChecked == checked && AnimationEngine.isRunning(this, PROP_THUMB)) return;
 
         isChecked = checked;
         float thumbRadius = getHeight() / 2f - scaledDp(2f);
         float targetX = isChecked ? getWidth() - thumbRadius - scaledDp(2f) : thumbRadius + scaledDp(2f);
 
         if (animate) {
-            if (thumbAnimator != null) thumbAnimator.cancel();
-            thumbAnimator = ValueAnimator.ofFloat(thumbX, targetX);
-            thumbAnimator.setDuration(200);
-            thumbAnimator.setInterpolator(new DecelerateInterpolator());
-            thumbAnimator.addUpdateListener(animation -> {
-                thumbX = (float) animation.getAnimatedValue();
-                invalidate();
-            });
-            thumbAnimator.start();
+            AnimationEngine.animateFloat(this, PROP_THUMB, thumbX, targetX, 200, THUMB_INTERPOLATOR);
         } else {
+            AnimationEngine.cancel(this, PROP_THUMB);
             thumbX = targetX;
             invalidate();
         }
@@ -114,7 +110,13 @@ public class CustomSwitch extends View implements ThemeManager.OnThemeColorChang
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         ThemeManager.removeListener(this);
-        if (thumbAnimator != null) thumbAnimator.cancel();
+        AnimationEngine.cancelAll(this);
+    }
+
+    @Override
+    public void onAnimationUpdate(int property, float value) {
+        thumbX = value;
+        invalidate();
     }
 
     private float dpToPx(float dp) {
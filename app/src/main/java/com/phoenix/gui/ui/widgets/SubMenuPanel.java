@@ -1,7 +1,5 @@
 package com.phoenix.gui.ui.widgets;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Color;
@@ -14,6 +12,8 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.phoenix.gui.module.Module;
+import com.phoenix.gui.ui.AnimationUtils;
+import com.phoenix.gui.ui.NumberFormatter;
 import com.phoenix.gui.ui.ThemeManager;
 
 import java.util.ArrayList;
@@ -124,6 +124,7 @@ public class SubMenuPanel extends LinearLayout implements ThemeManager.OnThemeCo
         labelRow.addView(labelText);
 
         TextView valueText = new TextView(getContext());
+        NumberFormatter.Label valueLabel = new NumberFormatter.Label(8);
         valueText.setTextSize(11f * scaleFactor);
         valueText.setTextColor(ThemeManager.getTextSecondary());
         labelRow.addView(valueText);
@@ -132,11 +133,8 @@ public class SubMenuPanel extends LinearLayout implements ThemeManager.OnThemeCo
 
         CustomSlider slider = new CustomSlider(getContext(), module.getName(), label.toLowerCase(),
                 min, max, defaultValue, value -> {
-            if ("%.2f".equals(format)) {
-                valueText.setText(String.format("%.2f", value / 100.0));
-            } else {
-                valueText.setText(String.valueOf(value));
-            }
+            // 拖动时每次都会回调，写进同一个缓冲，不产生字符串
+            formatSliderValue(valueLabel, value, format).applyTo(valueText);
             onValueChanged.onValueChanged(value);
         });
 
@@ -145,12 +143,18 @@ public class SubMenuPanel extends LinearLayout implements ThemeManager.OnThemeCo
         sliderParams.setMargins(0, scaled(2), 0, 0);
         container.addView(slider, sliderParams);
         scalableWidgets.add(new ScalableWidget(slider, labelText, valueText, sliderParams, 20));
+        formatSliderValue(valueLabel, defaultValue, format).applyTo(valueText);
+        addView(container);
+    }
+
+    private static NumberFormatter.Label formatSliderValue(NumberFormatter.Label label, int value, String format) {
+        label.clear();
         if ("%.2f".equals(format)) {
-            valueText.setText(String.format("%.2f", defaultValue / 100.0));
+            label.appendFixed(value / 100.0, 2);
         } else {
-            valueText.setText(String.valueOf(defaultValue));
+            label.appendInt(value);
         }
-        addView(container);
+        return label;
     }
 
     public void addShortcutSwitch(boolean defaultValue) {
@@ -339,32 +343,11 @@ public class SubMenuPanel extends LinearLayout implements ThemeManager.OnThemeCo
 
     private void expand(Runnable onComplete) {
         isOpen = true;
-        setVisibility(View.VISIBLE);
-        measure(
-            MeasureSpec.makeMeasureSpec(((ViewGroup)getParent()).getWidth(), MeasureSpec.EXACTLY),
-            MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
-        );
-        int targetHeight = getMeasuredHeight();
         if (heightAnimator != null) heightAnimator.cancel();
-        getLayoutParams().height = 0;
-        heightAnimator = ValueAnimator.ofInt(0, targetHeight);
-        heightAnimator.setDuration(250);
-        heightAnimator.addUpdateListener(animation -> {
-            ViewGroup.LayoutParams params = getLayoutParams();
-            params.height = (int) animation.getAnimatedValue();
-            setLayoutParams(params);
-        });
-        heightAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                ViewGroup.LayoutParams params = getLayoutParams();
-                params.height = LayoutParams.WRAP_CONTENT;
-                setLayoutParams(params);
-                if (onComplete != null) onComplete.run();
-                if (onStateChangedListener != null) onStateChangedListener.run();
-            }
+        heightAnimator = AnimationUtils.revealExpand(this, LayoutParams.WRAP_CONTENT, 250, null, () -> {
+            if (onComplete != null) onComplete.run();
+            if (onStateChangedListener != null) onStateChangedListener.run();
         });
-        heightAnimator.start();
         setAlpha(0f);
         animate().alpha(1f).setDuration(250).start();
     }
@@ -375,31 +358,18 @@ public class SubMenuPanel extends LinearLayout implements ThemeManager.OnThemeCo
             return;
         }
         isOpen = false;
-        int currentHeight = getHeight();
-        getLayoutParams().height = currentHeight;
         if (heightAnimator != null) heightAnimator.cancel();
         animate().alpha(0f).setDuration(250).start();
-        heightAnimator = ValueAnimator.ofInt(currentHeight, 0);
-        heightAnimator.setDuration(250);
-        heightAnimator.addUpdateListener(animation -> {
-            ViewGroup.LayoutParams params = getLayoutParams();
-            params.height = (int) animation.getAnimatedValue();
-            setLayoutParams(params);
-        });
-        heightAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                setVisibility(View.GONE);
-                if (onComplete != null) onComplete.run();
-                if (onStateChangedListener != null) onStateChangedListener.run();
-            }
+        heightAnimator = AnimationUtils.revealCollapse(this, 250, null, () -> {
+            if (onComplete != null) onComplete.run();
+            if (onStateChangedListener != null) onStateChangedListener.run();
         });
-        heightAnimator.start();
     }
 
     public void forceCollapse() {
         if (heightAnimator != null) heightAnimator.cancel();
         isOpen = false;
+        AnimationUtils.resetReveal(this);
         setVisibility(View.GONE);
         setAlpha(0f);
         getLayoutParams().height = 0;